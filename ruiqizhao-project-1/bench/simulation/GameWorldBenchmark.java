@@ -0,0 +1,164 @@
+package simulation;
+
+import entities.Mario;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import util.AssetCache;
+import util.IOUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the per-tick hot path of {@link GameWorld}.
+ * <p>
+ * Each benchmark runs against a generated level in which the number of platforms,
+ * ladders and barrels equals {@code levelSize}. Run with {@link #main(String[])} so that
+ * the GC profiler reports bytes allocated per operation next to the ns/op score.
+ * <p>
+ * Every barrel starts falling onto its platform and Mario starts mid-jump above a barrel, and
+ * the world is restored to that state before every invocation, so each benchmark measures the
+ * same work throughout the run. The setup also checks that landing and jump scoring really
+ * happen from that state, so an early exit added to the rules fails the benchmark instead of
+ * silently making it measure nothing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GameWorldBenchmark {
+
+    @Param({"5", "100", "1000", "10000", "100000"})
+    public int levelSize;
+
+    private GameWorld world;
+    private Mario mario;
+    private int barrelSlot;
+    private final QueryBuffer query = new QueryBuffer();
+    private final InputState climbDown = new InputState();
+    private byte[] snapshot;
+
+    /**
+     * Builds a headless world for the current level size, sets every barrel falling, puts Mario
+     * mid-jump above the first barrel and records that state.
+     *
+     * @throws IOException If the state cannot be recorded
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        AssetCache.setHeadless(true);
+        Properties baseProps = IOUtils.readPropertiesFile("res/app.properties");
+        world = new GameWorld(LevelGenerator.generate(baseProps, levelSize, levelSize, levelSize));
+        mario = world.getMario();
+        Archetype barrels = world.getBarrels();
+        barrelSlot = barrels.getSlotCount() / 2;
+        for (int slot = 0; slot < barrels.getSlotCount(); slot++) {
+            if (barrels.isAlive(slot)) barrels.setVelocityY(slot, Archetype.DEFAULT_TERMINAL_VELOCITY);
+        }
+
+        // Far enough above the barrel that no platform of the next floor is in between
+        mario.reset(barrels.getLeftEdge(0), barrels.getTopEdge(0) - mario.getHeight() - 40);
+        InputState jump = new InputState();
+        jump.set(false, false, false, false, true);
+        mario.setOnGround(true);
+        mario.update(jump);
+
+        climbDown.set(false, false, false, true, false);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        world.writeState(new DataOutputStream(bytes));
+        snapshot = bytes.toByteArray();
+        checkFixture();
+    }
+
+    /**
+     * Puts the world back into the recorded state.
+     *
+     * @throws IOException If the state cannot be restored
+     */
+    @Setup(Level.Invocation)
+    public void restore() throws IOException {
+        world.readState(new DataInputStream(new ByteArrayInputStream(snapshot)));
+    }
+
+    /** Fails the run if the recorded state no longer exercises the rules being measured. */
+    private void checkFixture() throws IOException {
+        if (!world.landBarrel(barrelSlot, query)) {
+            throw new IllegalStateException("Barrel " + barrelSlot + " does not land on its platform");
+        }
+        restore();
+        world.checkBarrelJumpScore();
+        if (world.getScore() == 0) {
+            throw new IllegalStateException("Mario's jump does not score over the barrel below him");
+        }
+        restore();
+    }
+
+    @Benchmark
+    public boolean landBarrel() {
+        return world.landBarrel(barrelSlot, query);
+    }
+
+    @Benchmark
+    public void landBarrels() {
+        world.landBarrels();
+    }
+
+    @Benchmark
+    public void handleLadderClimbing() {
+        world.handleLadderClimbing(climbDown);
+    }
+
+    @Benchmark
+    public int checkBarrelJumpScore() {
+        world.checkBarrelJumpScore();
+        return world.getScore();
+    }
+
+    @Benchmark
+    public boolean updateBarrels() {
+        world.updateBarrels();
+        return world.isGameOver();
+    }
+
+    @Benchmark
+    public boolean isStandingOnPlatform() {
+        return world.isStandingOnPlatform();
+    }
+
+    @Benchmark
+    public boolean boundingBoxIntersects() {
+        return mario.intersects(world.getDonkey());
+    }
+
+    /** Baseline for {@link #boundingBoxIntersects()}: the rectangle-allocating check it replaced. */
+    @Benchmark
+    public boolean rectangleIntersects() {
+        return mario.getBoundingBox().intersects(world.getDonkey().getBoundingBox());
+    }
+
+    /**
+     * Runs every benchmark in this class with the GC profiler attached.
+     *
+     * @param args Unused
+     * @throws RunnerException If JMH fails to run
+     */
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(GameWorldBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -1,7 +1,17 @@
 import bagel.*;
 import java.util.Properties;
 import pages.*;
+import simulation.GameEventBus;
+import simulation.GameEventStats;
+import simulation.GameWorld;
+import simulation.InputState;
+import simulation.ReplayWriter;
+import util.FrameProfiler;
 import util.IOUtils;
+import util.ScoreStore;
+
+import java.io.IOException;
+import java.nio.file.Path;
 
 /**
  * The main class for the Shadow Donkey Kong game.
@@ -13,18 +23,37 @@ import util.IOUtils;
  */
 public class ShadowDonkeyKong extends AbstractGame {
 
+    // Fixed simulation timestep, independent of the display refresh rate
+    private static final long TICK_NANOS = 1_000_000_000L / GameWorld.TICKS_PER_SECOND;
+    // Most ticks run in one frame before the backlog is dropped, so slow frames cannot spiral
+    private static final int MAX_TICKS_PER_FRAME = 5;
+    // Events a consumer may fall behind by before new ones are dropped
+    private static final int EVENT_BUFFER_SIZE = 1024;
+
     private final Properties GAME_PROPS;
     private final Properties MESSAGE_PROPS;
+    private final FrameProfiler profiler = new FrameProfiler();
+    private final GameEventBus events = new GameEventBus(EVENT_BUFFER_SIZE);
+    private final ScoreStore scores;
+    private final ReplayWriter replays;
     private GamePage currentPage;
 
+    // Fixed-timestep state
+    private final InputState inputState = new InputState();
+    private long lastFrameTime = -1;
+    private long accumulator = 0;
+    private boolean jumpPending = false;
+
 
-    public ShadowDonkeyKong(Properties gameProps, Properties messageProps) {
+    public ShadowDonkeyKong(Properties gameProps, Properties messageProps, ScoreStore scores, ReplayWriter replays) {
         super(Integer.parseInt(gameProps.getProperty("window.width")),
                 Integer.parseInt(gameProps.getProperty("window.height")),
                 messageProps.getProperty("home.title"));
 
         this.GAME_PROPS = gameProps;
         this.MESSAGE_PROPS = messageProps;
+        this.scores = scores;
+        this.replays = replays;
         this.currentPage = null; // Let update() handle first page setup
 
     }
@@ -32,6 +61,10 @@ public class ShadowDonkeyKong extends AbstractGame {
 
     /**
      * Render the relevant screen based on the keyboard input given by the user and the status of the gameplay.
+     * <p>
+     * The simulation advances in fixed-length ticks: each frame adds the elapsed time to an
+     * accumulator and runs as many ticks as fit, then draws entities interpolated between
+     * the last two ticks.
      * @param input The current mouse/keyboard input.
      */
     @Override
@@ -43,10 +76,16 @@ public class ShadowDonkeyKong extends AbstractGame {
         // Initial setup
         if (GamePage.GAME_PROPS == null) {
             GamePage.setProps(GAME_PROPS, MESSAGE_PROPS);
-            currentPage = new HomePage();
+            GamePage.setProfiler(profiler);
+            GamePage.setScores(scores);
+            GamePage.setReplays(replays);
+            GamePage.setEventBus(events);
+            // Loads the assets and the level while the window stays responsive
+            currentPage = new LoadingPage();
         }
 
-        currentPage.update(input);
+        runTicks(input);
+        currentPage.update(input, (double) accumulator / TICK_NANOS);
 
         GamePage nextPage = GamePage.consumeNextPage();
         if (nextPage != null) {
@@ -54,6 +93,31 @@ public class ShadowDonkeyKong extends AbstractGame {
         }
     }
 
+    /** Runs zero or more simulation ticks to catch up with the time elapsed since the last frame. */
+    private void runTicks(Input input) {
+        long now = System.nanoTime();
+        if (lastFrameTime >= 0) {
+            accumulator += now - lastFrameTime;
+        }
+        lastFrameTime = now;
+
+        // A press is kept until a tick consumes it, so it is neither lost nor applied twice
+        jumpPending |= input.wasPressed(Keys.SPACE);
+
+        int ticks = 0;
+        while (accumulator >= TICK_NANOS && ticks < MAX_TICKS_PER_FRAME && !GamePage.hasNextPage()) {
+            inputState.set(input.isDown(Keys.LEFT), input.isDown(Keys.RIGHT),
+                    input.isDown(Keys.UP), input.isDown(Keys.DOWN), jumpPending);
+            jumpPending = false;
+            currentPage.tick(inputState);
+            accumulator -= TICK_NANOS;
+            ticks++;
+        }
+        if (ticks == MAX_TICKS_PER_FRAME) {
+            accumulator = Math.min(accumulator, TICK_NANOS - 1);
+        }
+    }
+
 
 
 
@@ -70,10 +134,79 @@ public class ShadowDonkeyKong extends AbstractGame {
         Properties gameProps = IOUtils.readPropertiesFile("res/app.properties");
         Properties messageProps = IOUtils.readPropertiesFile("res/message_en.properties");
 
-        ShadowDonkeyKong game = new ShadowDonkeyKong(gameProps, messageProps);
+        ScoreStore scores = openScores(gameProps);
+        String replayDirectory = gameProps.getProperty("replay.directory");
+        ReplayWriter replays = replayDirectory != null ? new ReplayWriter(Path.of(replayDirectory)) : null;
+        ShadowDonkeyKong game = new ShadowDonkeyKong(gameProps, messageProps, scores, replays);
+
+        // Scores still queued are written before the process exits
+        if (scores != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    scores.close(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+
+        // Recordings still queued are written before the process exits
+        if (replays != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    replays.close(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+
+        // Written however the window is closed
+        String profileFile = gameProps.getProperty("profiler.csvFile");
+        if (profileFile != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    game.profiler.writeCsv(Path.of(profileFile));
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }));
+        }
+
+        // Session analytics, tallied off the frame thread and written when the game exits
+        String telemetryFile = gameProps.getProperty("telemetry.csvFile");
+        if (telemetryFile != null) {
+            GameEventStats stats = GameEventStats.start(game.events);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    if (stats.stop(1000)) {
+                        stats.writeCsv(Path.of(telemetryFile));
+                    } else {
+                        System.err.println("Event stats did not stop in time; " + telemetryFile + " not written");
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }));
+        }
 
         game.run();
     }
 
+    /** Opens the high score file, or returns null if none is configured or it cannot be opened. */
+    private static ScoreStore openScores(Properties gameProps) {
+        String scoresFile = gameProps.getProperty("gameEnd.scoresFile");
+        if (scoresFile == null) return null;
+        try {
+            return ScoreStore.open(Path.of(scoresFile), Integer.parseInt(gameProps.getProperty("gameEnd.scores.count")));
+        } catch (IOException e) {
+            // The game is still playable without a leaderboard
+            e.printStackTrace();
+            return null;
+        }
+    }
+
 
 }
@@ -1,14 +1,29 @@
 package entities;
 
-import bagel.Input;
-import bagel.util.Rectangle;
+import simulation.Component;
+import util.AssetCache;
+import util.Sprite;
 
 /**
- * Represents a barrel entity in the game.
- * Barrels are passive objects affected by gravity,
- * and interact with platforms and Mario (for score or game over).
+ * Describes where a barrel starts in a level.
+ * <p>
+ * Barrel objects only exist while a level is loaded, to snap each barrel onto the platform
+ * below it; during play barrels are rows of an archetype in the game's
+ * {@code simulation.EntityStore}, which updates and draws them in batches.
  */
-public class Barrel extends Entity {
+public class Barrel implements Collidable {
+
+    /** Image shared by all barrels */
+    public static final String IMAGE_PATH = "res/barrel.png";
+
+    /** Components of a barrel during play; Mario scores once per jump over each barrel */
+    public static final int COMPONENTS = Component.mask(
+            Component.POSITION, Component.VELOCITY, Component.SPRITE, Component.COLLIDER, Component.JUMPABLE);
+
+    // Position (top-left corner)
+    private final double x;
+    private double y;
+    private final Sprite sprite;
 
     /**
      * Creates a new barrel centered at the given coordinates.
@@ -17,28 +32,44 @@ public class Barrel extends Entity {
      * @param centerY Y coordinate of the center
      */
     public Barrel(double centerX, double centerY) {
-        super("res/barrel.png", 0, 0);
-        this.x = centerX - image.getWidth() / 2;
-        this.y = centerY - image.getHeight() / 2;
+        sprite = AssetCache.getSprite(IMAGE_PATH);
+        this.x = centerX - sprite.getWidth() / 2;
+        this.y = centerY - sprite.getHeight() / 2;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
     }
 
     /**
-     * Updates the barrel's state.
-     * Currently, applies gravity to make the barrel fall.
-     *
-     * @param input The current input state (unused for barrels)
+     * @return Height of the barrel (based on sprite height)
      */
+    public double getHeight() {
+        return sprite.getHeight();
+    }
+
     @Override
-    public void update(Input input) {
-        applyGravity();
+    public double getTopEdge() {
+        return y;
     }
 
-    /**
-     * Draws the barrel at its current position.
-     */
     @Override
-    public void draw() {
-        image.drawFromTopLeft(x, y);
+    public double getBottomEdge() {
+        return y + sprite.getHeight();
+    }
+
+    @Override
+    public double getLeftEdge() {
+        return x;
+    }
+
+    @Override
+    public double getRightEdge() {
+        return x + sprite.getWidth();
     }
 
     /**
@@ -48,7 +79,7 @@ public class Barrel extends Entity {
      * @return true if the barrel overlaps the platform, false otherwise
      */
     public boolean isOverlappingPlatform(Platform platform) {
-        return this.getBoundingBox().intersects(platform.getBoundingBox());
+        return intersects(platform);
     }
 
     /**
@@ -59,14 +90,4 @@ public class Barrel extends Entity {
     public void snapAbovePlatform(Platform platform) {
         this.y = platform.getTopEdge() - this.getHeight();
     }
-
-    /**
-     * Gets the bounding box for collision detection.
-     *
-     * @return The bounding box rectangle
-     */
-    @Override
-    public Rectangle getBoundingBox() {
-        return new Rectangle(x, y, image.getWidth(), image.getHeight());
-    }
 }
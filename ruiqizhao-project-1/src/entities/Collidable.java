@@ -0,0 +1,47 @@
+package entities;
+
+/**
+ * An axis-aligned box in the game world that can take part in collision checks.
+ * <p>
+ * Overlap tests compare edges directly instead of building {@code Rectangle} objects,
+ * so collision checks in the game loop allocate nothing. Touching edges count as overlapping,
+ * matching {@code bagel.util.Rectangle#intersects}.
+ */
+public interface Collidable {
+
+    /** @return The x-coordinate of the left edge. */
+    double getLeftEdge();
+
+    /** @return The x-coordinate of the right edge. */
+    double getRightEdge();
+
+    /** @return The y-coordinate of the top edge. */
+    double getTopEdge();
+
+    /** @return The y-coordinate of the bottom edge. */
+    double getBottomEdge();
+
+    /**
+     * Checks if this box overlaps the box given by its edges.
+     *
+     * @param left   Left edge of the other box
+     * @param top    Top edge of the other box
+     * @param right  Right edge of the other box
+     * @param bottom Bottom edge of the other box
+     * @return True if the boxes overlap
+     */
+    default boolean intersects(double left, double top, double right, double bottom) {
+        return left <= getRightEdge() && right >= getLeftEdge()
+                && top <= getBottomEdge() && bottom >= getTopEdge();
+    }
+
+    /**
+     * Checks if this box overlaps another.
+     *
+     * @param other Another collidable box
+     * @return True if the boxes overlap
+     */
+    default boolean intersects(Collidable other) {
+        return intersects(other.getLeftEdge(), other.getTopEdge(), other.getRightEdge(), other.getBottomEdge());
+    }
+}
@@ -1,6 +1,8 @@
 package entities;
 
-import bagel.Input;
+import simulation.Component;
+import simulation.EntityStore;
+import simulation.InputState;
 
 /**
  * Represents Donkey Kong in the game.
@@ -13,17 +15,22 @@ import bagel.Input;
  */
 public class Donkey extends Entity {
 
+    /** Donkey falls and collides, but cannot climb or be collected */
+    public static final int COMPONENTS = Component.mask(
+            Component.POSITION, Component.VELOCITY, Component.SPRITE, Component.COLLIDER);
+
     /**
      * Constructs a Donkey object at a specified position.
      *
+     * @param store     The store of the game Donkey belongs to.
      * @param imagePath Path to the Donkey image.
      * @param x         X-coordinate (top-left) of Donkey.
      * @param y         Y-coordinate (top-left) of Donkey.
      */
-    public Donkey(String imagePath, double x, double y) {
-        super(imagePath, x, y);
+    public Donkey(EntityStore store, String imagePath, double x, double y) {
+        super(store, COMPONENTS, imagePath, x, y);
         // Separate maximum fall speed of 5
-        this.terminalVelocity = 5;
+        archetype.setTerminalVelocity(row, 5);
     }
 
     /**
@@ -32,10 +39,10 @@ public class Donkey extends Entity {
      * Currently, Donkey is stationary and only subject to gravity.
      * This can be extended for future animations or interactions.
      *
-     * @param input The current frame's user input (unused).
+     * @param input The current tick's control snapshot (unused).
      */
     @Override
-    public void update(Input input) {
+    public void update(InputState input) {
         applyGravity();
     }
 }
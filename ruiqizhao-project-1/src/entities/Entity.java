@@ -1,74 +1,63 @@
 /**
  * Abstract base class representing a generic entity in the game.
  * <p>
- * Provides common functionality such as:
- * - Positioning
- * - Gravity and vertical movement
- * - Image rendering
- * - Collision detection via bounding box
+ * An entity is a handle to one row of an {@link Archetype} in the game's {@link EntityStore}:
+ * its position, velocity, sprite and other state live in the archetype's packed arrays, where
+ * the game loop's systems process them in bulk. The handle gives the entity's own rules
+ * (e.g. Mario's movement) and the pages convenient access to that row.
  * <p>
- * All game elements (e.g., Mario, Donkey, Barrel) should extend from this.
+ * Each subclass declares the {@link Component}s it has; entities with the same components
+ * share an archetype.
  */
 
 package entities;
 
-import bagel.Image;
-import bagel.Input;
 import bagel.util.Rectangle;
+import simulation.Archetype;
+import simulation.EntityStore;
+import simulation.InputState;
 
-public abstract class Entity {
-    // Position (top-left corner)
-    protected double x, y;
-
-    // Current vertical velocity and gravity constants
-    protected double velocityY = 0;
-    protected final double gravity = 0.2;
-    protected double terminalVelocity = 10;
-
-    // Image used for rendering this entity
-    protected Image image;
+public abstract class Entity implements Collidable {
+    // Where the entity's state is stored
+    protected final Archetype archetype;
+    protected final int row;
 
     /**
-     * Constructs a new entity with image and position.
+     * Spawns a new entity at rest in the store.
      *
-     * @param imagePath Path to the entity's image
-     * @param x         Initial x-position (top-left)
-     * @param y         Initial y-position (top-left)
+     * @param store      The store of the game the entity belongs to
+     * @param components Mask of the entity's components
+     * @param imagePath  Path to the entity's image
+     * @param x          Initial x-position (top-left)
+     * @param y          Initial y-position (top-left)
      */
-    public Entity(String imagePath, double x, double y) {
-        this.image = new Image(imagePath);
-        this.x = x;
-        this.y = y;
+    public Entity(EntityStore store, int components, String imagePath, double x, double y) {
+        archetype = store.getArchetype(components, imagePath);
+        row = archetype.spawn(x, y);
+        archetype.setSprite(row, store.spriteId(imagePath));
     }
 
     /**
-     * Applies gravity to the entity, increasing downward velocity
+     * Applies one tick of gravity to the entity, increasing downward velocity
      * and updating its vertical position.
      */
     public void applyGravity() {
-        velocityY = Math.min(velocityY + gravity, terminalVelocity);
-        y += velocityY;
-    }
-
-    /**
-     * Stops downward movement by setting vertical velocity to zero.
-     */
-    public void stopFalling() {
-        velocityY = 0;
+        archetype.applyGravity(row);
     }
 
     /**
      * Returns the bounding box used for collision detection.
+     * Allocates a new rectangle; collision checks in the game loop use {@link #intersects} instead.
      */
     public Rectangle getBoundingBox() {
-        return new Rectangle(x, y, image.getWidth(), image.getHeight());
+        return new Rectangle(getX(), getY(), getWidth(), getHeight());
     }
 
     /**
      * @return Current vertical velocity
      */
     public double getVelocityY() {
-        return velocityY;
+        return archetype.getVelocityY(row);
     }
 
     /**
@@ -77,63 +66,110 @@ public abstract class Entity {
      * @param newY New y-position
      */
     public void setY(double newY) {
-        this.y = newY;
+        archetype.setY(row, newY);
     }
 
     /**
-     * @return Height of the entity (based on image height)
+     * @return Width of the entity (based on sprite width)
      */
-    public double getHeight() {
-        return image.getHeight();
+    public double getWidth() {
+        return archetype.getWidth(row);
     }
 
     /**
-     * Checks if this entity intersects with another.
-     *
-     * @param other Another entity
-     * @return True if bounding boxes intersect
+     * @return Height of the entity (based on sprite height)
      */
-    public boolean intersects(Entity other) {
-        return this.getBoundingBox().intersects(other.getBoundingBox());
+    public double getHeight() {
+        return archetype.getHeight(row);
     }
 
     // === Edge and Position Helpers ===
 
+    @Override
     public double getTopEdge() {
-        return y;
+        return archetype.getTopEdge(row);
     }
 
+    @Override
     public double getBottomEdge() {
-        return y + image.getHeight();
+        return archetype.getBottomEdge(row);
     }
 
+    @Override
     public double getLeftEdge() {
-        return x;
+        return archetype.getLeftEdge(row);
     }
 
+    @Override
     public double getRightEdge() {
-        return x + image.getWidth();
+        return archetype.getRightEdge(row);
     }
 
     public double getX() {
-        return x;
+        return archetype.getX(row);
     }
 
     public double getY() {
-        return y;
+        return archetype.getY(row);
     }
 
     /**
-     * Renders the entity image at its current top-left coordinates.
+     * Renders the entity sprite at its current top-left coordinates.
      */
     public void draw() {
-        image.drawFromTopLeft(x, y);
+        draw(1);
+    }
+
+    /**
+     * Renders the entity sprite between its previous and current position.
+     *
+     * @param alpha Fraction of a tick elapsed since the last tick (0 = previous, 1 = current)
+     */
+    public void draw(double alpha) {
+        archetype.draw(row, alpha);
+    }
+
+    /**
+     * @param alpha Fraction of a tick elapsed since the last tick (0 = previous, 1 = current)
+     * @return The x-coordinate the entity is drawn at, between its previous and current position
+     */
+    public double getDrawX(double alpha) {
+        return archetype.getDrawX(row, alpha);
+    }
+
+    /**
+     * @param alpha Fraction of a tick elapsed since the last tick (0 = previous, 1 = current)
+     * @return The y-coordinate the entity is drawn at, between its previous and current position
+     */
+    public double getDrawY(double alpha) {
+        return archetype.getDrawY(row, alpha);
+    }
+
+    /**
+     * Puts the entity back at rest at a position, as if it had just been constructed there.
+     * Subclasses with state outside the store extend this to reset it too.
+     *
+     * @param x New x-position (top-left)
+     * @param y New y-position (top-left)
+     */
+    public void reset(double x, double y) {
+        archetype.reset(row, x, y);
+    }
+
+    /** @return The archetype storing the entity. */
+    public Archetype getArchetype() {
+        return archetype;
+    }
+
+    /** @return The entity's row in its archetype. */
+    public int getRow() {
+        return row;
     }
 
     /**
      * Abstract method to be implemented by subclasses to define entity behavior.
      *
-     * @param input Keyboard and mouse input handler
+     * @param input Control snapshot for the current tick
      */
-    public abstract void update(Input input);
+    public abstract void update(InputState input);
 }
@@ -1,6 +1,8 @@
 package entities;
 
-import bagel.Input;
+import simulation.Component;
+import simulation.EntityStore;
+import simulation.InputState;
 
 /**
  * Represents a hammer in the game that Mario can collect.
@@ -8,25 +10,27 @@ import bagel.Input;
  */
 public class Hammer extends Entity {
 
-    /** Tracks whether the hammer has been collected by Mario */
-    private boolean collected = false;
+    /** The hammer stays where it is placed until it is collected */
+    public static final int COMPONENTS = Component.mask(
+            Component.POSITION, Component.SPRITE, Component.COLLIDER, Component.COLLECTIBLE);
 
     /**
      * Constructs a Hammer object at the specified position.
      *
+     * @param store     The store of the game the hammer belongs to
      * @param imagePath Path to the hammer image resource
      * @param x         X-coordinate (top-left)
      * @param y         Y-coordinate (top-left)
      */
-    public Hammer(String imagePath, double x, double y) {
-        super(imagePath, x, y);
+    public Hammer(EntityStore store, String imagePath, double x, double y) {
+        super(store, COMPONENTS, imagePath, x, y);
     }
 
     /**
      * @return True if the hammer has been collected, false otherwise
      */
     public boolean isCollected() {
-        return collected;
+        return archetype.isCollected(row);
     }
 
     /**
@@ -34,26 +38,28 @@ public class Hammer extends Entity {
      * This prevents it from being drawn or collected again.
      */
     public void collect() {
-        collected = true;
+        archetype.setCollected(row, true);
     }
 
     /**
      * Hammers have no update logic (no animation or interaction until collected).
      *
-     * @param input Input from the game loop (unused)
+     * @param input Control snapshot from the game loop (unused)
      */
     @Override
-    public void update(Input input) {
+    public void update(InputState input) {
         // Hammer is passive and does not respond to input
     }
 
     /**
      * Draws the hammer on screen unless it has been collected.
+     *
+     * @param alpha Fraction of a tick elapsed since the last tick
      */
     @Override
-    public void draw() {
-        if (!collected) {
-            image.drawFromTopLeft(x, y);
+    public void draw(double alpha) {
+        if (!isCollected()) {
+            super.draw(alpha);
         }
     }
 }
@@ -1,7 +1,8 @@
 package entities;
 
-import bagel.Image;
 import bagel.util.Rectangle;
+import util.AssetCache;
+import util.Sprite;
 
 /**
  * Represents a static ladder in the game world.
@@ -10,10 +11,10 @@ import bagel.util.Rectangle;
  * They are rendered using a fixed image and support snapping
  * to the top of a platform for precise alignment.
  */
-public class Ladder {
+public class Ladder implements Collidable {
     private final double x;
     private double y;
-    private final Image image;
+    private final Sprite sprite;
 
     /**
      * Constructs a ladder centered at the given coordinates.
@@ -24,14 +25,14 @@ public class Ladder {
     public Ladder(double x, double y) {
         this.x = x;
         this.y = y;
-        this.image = new Image("res/ladder.png");
+        this.sprite = AssetCache.getSprite("res/ladder.png");
     }
 
     /**
      * Draws the ladder image centered at its position.
      */
     public void draw() {
-        image.drawFromTopLeft(
+        sprite.drawFromTopLeft(
                 getLeftEdge(),
                 getTopEdge()
         );
@@ -39,6 +40,7 @@ public class Ladder {
 
     /**
      * Returns the bounding box of the ladder for collision detection.
+     * Allocates a new rectangle; collision checks in the game loop use {@link #intersects} instead.
      *
      * @return A Rectangle representing the ladder's area.
      */
@@ -46,8 +48,8 @@ public class Ladder {
         return new Rectangle(
                 getLeftEdge(),
                 getTopEdge(),
-                image.getWidth(),
-                image.getHeight()
+                sprite.getWidth(),
+                sprite.getHeight()
         );
     }
 
@@ -56,29 +58,33 @@ public class Ladder {
     /**
      * @return The left x-coordinate of the ladder.
      */
+    @Override
     public double getLeftEdge() {
-        return x - image.getWidth() / 2;
+        return x - sprite.getWidth() / 2;
     }
 
     /**
      * @return The right x-coordinate of the ladder.
      */
+    @Override
     public double getRightEdge() {
-        return x + image.getWidth() / 2;
+        return x + sprite.getWidth() / 2;
     }
 
     /**
      * @return The top y-coordinate of the ladder.
      */
+    @Override
     public double getTopEdge() {
-        return y - image.getHeight() / 2;
+        return y - sprite.getHeight() / 2;
     }
 
     /**
      * @return The bottom y-coordinate of the ladder.
      */
+    @Override
     public double getBottomEdge() {
-        return y + image.getHeight() / 2;
+        return y + sprite.getHeight() / 2;
     }
 
     /**
@@ -87,7 +93,7 @@ public class Ladder {
      * @param platform The platform to snap above.
      */
     public void snapAbovePlatform(Platform platform) {
-        this.y = platform.getTopEdge() - image.getHeight() / 2;
+        this.y = platform.getTopEdge() - sprite.getHeight() / 2;
     }
 
     /**
@@ -97,6 +103,6 @@ public class Ladder {
      * @return True if overlapping, false otherwise.
      */
     public boolean isOverlappingPlatform(Platform platform) {
-        return this.getBoundingBox().intersects(platform.getBoundingBox());
+        return intersects(platform);
     }
 }
@@ -1,59 +1,76 @@
 package entities;
 
-import bagel.Image;
-import bagel.Input;
-import bagel.Keys;
-import bagel.util.Rectangle;
+import simulation.Component;
+import simulation.EntityStore;
+import simulation.InputState;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
 
 /**
  * Represents the controllable player character Mario.
  * Handles movement, jumping, climbing, hammer collection, and animation logic.
+ * <p>
+ * Standing, jumping and climbing are kept in the store as Mario's climber component;
+ * only the hammer and the direction he faces, which no system reads, are kept here.
  */
 public class Mario extends Entity {
 
-    private boolean onGround = false;
-    private boolean jumping = false;
+    /** Mario is the only entity that climbs */
+    public static final int COMPONENTS = Component.mask(
+            Component.POSITION, Component.VELOCITY, Component.SPRITE, Component.COLLIDER, Component.CLIMBER);
+
+    /** Image paths for every sprite Mario can switch between */
+    public static final List<String> SPRITE_PATHS = List.of(
+            "res/mario_right.png", "res/mario_left.png",
+            "res/mario_hammer_right.png", "res/mario_hammer_left.png");
+
+    /** Largest vertical gap between Mario's feet and a ladder top for him to count as above it */
+    public static final double LADDER_ABOVE_TOLERANCE = 10;
+
+    // Sprite ids, fetched once so that switching sprites never loads an image
+    private final int rightSprite, leftSprite, hammerRightSprite, hammerLeftSprite;
+
     private boolean hasHammer = false;
-    private boolean climbing = false;
     private boolean facingRight = true;
-    private int climbingBuffer = 0;
+
+    // Mario cannot walk past the sides of the world
+    private final double worldWidth;
 
     /**
      * Constructs a new Mario instance with image and starting position.
      *
-     * @param imagePath Path to Mario's default image.
-     * @param x         Initial x-coordinate (top-left).
-     * @param y         Initial y-coordinate (top-left).
+     * @param store      The store of the game Mario belongs to.
+     * @param imagePath  Path to Mario's default image.
+     * @param x          Initial x-coordinate (top-left).
+     * @param y          Initial y-coordinate (top-left).
+     * @param worldWidth Width of the world Mario walks in.
      */
-    public Mario(String imagePath, double x, double y) {
-        super(imagePath, x, y);
+    public Mario(EntityStore store, String imagePath, double x, double y, double worldWidth) {
+        super(store, COMPONENTS, imagePath, x, y);
+        this.worldWidth = worldWidth;
+        rightSprite = store.spriteId(SPRITE_PATHS.get(0));
+        leftSprite = store.spriteId(SPRITE_PATHS.get(1));
+        hammerRightSprite = store.spriteId(SPRITE_PATHS.get(2));
+        hammerLeftSprite = store.spriteId(SPRITE_PATHS.get(3));
         updateImage();
     }
 
-    /**
-     * Basic update method required by the Entity interface.
-     *
-     * @param input Bagel input handler for key state.
-     */
-    @Override
-    public void update(Input input) {
-        update(input, null);
-    }
-
     /**
      * Updates Mario's position based on user input.
      *
-     * @param input     Input from Bagel (keyboard).
-     * @param blockList Optional: not used here, but useful for obstacle checks.
+     * @param input Control snapshot for the current tick.
      */
-    public void update(Input input, java.util.List<Entity> blockList) {
+    @Override
+    public void update(InputState input) {
         final double MOVE_SPEED = 3.5;
         final double JUMP_SPEED = -5;
-        final double SCREEN_WIDTH = 1024;
 
-        double proposedX = x;
-        boolean movingLeft = input.isDown(Keys.LEFT);
-        boolean movingRight = input.isDown(Keys.RIGHT);
+        double proposedX = getX();
+        boolean movingLeft = input.isLeftDown();
+        boolean movingRight = input.isRightDown();
 
         if (movingLeft) {
             proposedX -= MOVE_SPEED;
@@ -63,62 +80,63 @@ public class Mario extends Entity {
             facingRight = true;
         }
 
-        x = proposedX;
+        double x = proposedX;
 
-        if (onGround && !climbing && input.wasPressed(Keys.SPACE)) {
-            velocityY = JUMP_SPEED;
-            jumping = true;
-            onGround = false;
+        if (isOnGround() && !isClimbing() && input.wasJumpPressed()) {
+            archetype.setVelocityY(row, JUMP_SPEED);
+            archetype.setJumping(row, true);
+            archetype.setOnGround(row, false);
         }
 
-        // Keep within screen bounds
+        // Keep within world bounds
         if (x < 0) x = 0;
-        if (x + image.getWidth() > SCREEN_WIDTH) x = SCREEN_WIDTH - image.getWidth();
+        if (x + getWidth() > worldWidth) x = worldWidth - getWidth();
+        archetype.setX(row, x);
 
         updateImage();
     }
 
-    /**
-     * Updates Mario's current sprite based on direction and hammer status.
-     */
-    private void updateImage() {
-        if (hasHammer) {
-            image = new Image(facingRight ? "res/mario_hammer_right.png" : "res/mario_hammer_left.png");
-        } else {
-            image = new Image(facingRight ? "res/mario_right.png" : "res/mario_left.png");
-        }
+    /** {@inheritDoc} Mario also drops the hammer and faces right again. */
+    @Override
+    public void reset(double x, double y) {
+        super.reset(x, y);
+        hasHammer = false;
+        facingRight = true;
+        updateImage();
     }
 
     /**
-     * Applies gravity to Mario only if he's not grounded or climbing.
+     * Writes Mario's state that is not kept in the store.
+     *
+     * @param out Destination of the state
+     * @throws IOException If the destination cannot be written
      */
-    public void applyGravityIfNeeded() {
-        final double TERMINAL_VELOCITY = 10;
-
-        if (!onGround && !climbing) {
-            velocityY = Math.min(velocityY + 0.2, TERMINAL_VELOCITY);
-            y += velocityY;
-        }
+    public void writeState(DataOutput out) throws IOException {
+        out.writeBoolean(hasHammer);
+        out.writeBoolean(facingRight);
     }
 
     /**
-     * Gets Mario's bounding box for collision detection.
+     * Restores state written by {@link #writeState}.
      *
-     * @return A rectangle representing Mario's bounds.
+     * @param in Source of the state
+     * @throws IOException If the source cannot be read
      */
-    @Override
-    public Rectangle getBoundingBox() {
-        return image.getBoundingBoxAt(new bagel.util.Point(
-                x + image.getWidth() / 2,
-                y + image.getHeight() / 2));
+    public void readState(DataInput in) throws IOException {
+        hasHammer = in.readBoolean();
+        facingRight = in.readBoolean();
+        updateImage();
     }
 
     /**
-     * Renders Mario's current sprite at the top-left position.
+     * Updates Mario's current sprite based on direction and hammer status.
      */
-    @Override
-    public void draw() {
-        image.drawFromTopLeft(x, y);
+    private void updateImage() {
+        if (hasHammer) {
+            archetype.setSprite(row, facingRight ? hammerRightSprite : hammerLeftSprite);
+        } else {
+            archetype.setSprite(row, facingRight ? rightSprite : leftSprite);
+        }
     }
 
     /**
@@ -127,26 +145,22 @@ public class Mario extends Entity {
      * @param value True if grounded; false otherwise.
      */
     public void setOnGround(boolean value) {
-        this.onGround = value;
-        if (value) {
-            jumping = false;
-            velocityY = 0;
-        }
+        archetype.setOnGround(row, value);
     }
 
     /** @return True if Mario is on the ground. */
     public boolean isOnGround() {
-        return onGround;
+        return archetype.isOnGround(row);
     }
 
     /** @return True if Mario is in a jump. */
     public boolean isJumping() {
-        return jumping;
+        return archetype.isJumping(row);
     }
 
     /** @return True if Mario is currently climbing. */
     public boolean isClimbing() {
-        return climbing;
+        return archetype.isClimbing(row);
     }
 
     /**
@@ -155,9 +169,9 @@ public class Mario extends Entity {
      * @param climbing True if Mario is climbing.
      */
     public void setClimbing(boolean climbing) {
-        this.climbing = climbing;
+        archetype.setClimbing(row, climbing);
         if (climbing) {
-            this.climbingBuffer = 4;
+            archetype.setClimbingBuffer(row, 4);
         }
     }
 
@@ -167,13 +181,14 @@ public class Mario extends Entity {
      * @return True if climbing or within the climbing buffer window.
      */
     public boolean isClimbingBuffered() {
-        return climbing || climbingBuffer > 0;
+        return archetype.isClimbingBuffered(row);
     }
 
     /** Ticks down the climbing buffer counter. */
     public void tickClimbingBuffer() {
+        int climbingBuffer = archetype.getClimbingBuffer(row);
         if (climbingBuffer > 0) {
-            climbingBuffer--;
+            archetype.setClimbingBuffer(row, climbingBuffer - 1);
         }
     }
 
@@ -195,21 +210,20 @@ public class Mario extends Entity {
      * @return True if Mario is horizontally aligned and standing above the ladder.
      */
     public boolean isAboveLadder(Ladder ladder) {
-        double marioCenterX = x + image.getWidth() / 2;
+        double marioCenterX = getCenterX();
         boolean horizontallyAligned = marioCenterX >= ladder.getLeftEdge() &&
                 marioCenterX <= ladder.getRightEdge();
-        boolean standingAbove = Math.abs(getBottomEdge() - ladder.getTopEdge()) <= 10;
+        boolean standingAbove = Math.abs(getBottomEdge() - ladder.getTopEdge()) <= LADDER_ABOVE_TOLERANCE;
         return horizontallyAligned && standingAbove;
     }
 
-    /** @return Width of Mario's current sprite. */
-    public double getWidth() {
-        return image.getWidth();
+    /** @return Mario's horizontal centre. */
+    public double getCenterX() {
+        return getX() + getWidth() / 2;
     }
 
-    /** @return Mario's current x-coordinate. */
-    public double getX() { return x; }
-
-    /** @return Mario's current y-coordinate. */
-    public double getY() { return y; }
+    /** @return Mario's vertical centre. */
+    public double getCenterY() {
+        return getY() + getHeight() / 2;
+    }
 }
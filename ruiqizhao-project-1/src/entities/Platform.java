@@ -1,17 +1,18 @@
 package entities;
 
-import bagel.Image;
 import bagel.util.Rectangle;
+import util.AssetCache;
+import util.Sprite;
 
 /**
  * Represents a static platform in the game world.
  * <p>
  * Platforms are solid surfaces that other entities (like Mario or barrels) can stand on.
- * Each platform is centered at (x, y) and rendered using a fixed platform image.
+ * Each platform is centered at (x, y) and rendered using a fixed platform sprite.
  */
-public class Platform {
+public class Platform implements Collidable {
     private final double x, y;
-    private final Image image;
+    private final Sprite sprite;
 
     /**
      * Constructs a platform centered at the specified (x, y) coordinates.
@@ -22,21 +23,22 @@ public class Platform {
     public Platform(double x, double y) {
         this.x = x;
         this.y = y;
-        this.image = new Image("res/platform.png");
+        this.sprite = AssetCache.getSprite("res/platform.png");
     }
 
     /**
      * Draws the platform image centered at its position.
      */
     public void draw() {
-        image.drawFromTopLeft(
-                x - image.getWidth() / 2,
-                y - image.getHeight() / 2
+        sprite.drawFromTopLeft(
+                x - sprite.getWidth() / 2,
+                y - sprite.getHeight() / 2
         );
     }
 
     /**
      * Returns the bounding box used for collision detection.
+     * Allocates a new rectangle; collision checks in the game loop use {@link #intersects} instead.
      *
      * @return A Rectangle representing the platform's collision bounds.
      */
@@ -44,8 +46,8 @@ public class Platform {
         return new Rectangle(
                 getLeftEdge(),
                 getTopEdge(),
-                image.getWidth(),
-                image.getHeight()
+                sprite.getWidth(),
+                sprite.getHeight()
         );
     }
 
@@ -54,35 +56,39 @@ public class Platform {
     /**
      * @return The y-coordinate of the top edge of the platform.
      */
+    @Override
     public double getTopEdge() {
-        return y - image.getHeight() / 2;
+        return y - sprite.getHeight() / 2;
     }
 
     /**
      * @return The y-coordinate of the bottom edge of the platform.
      */
+    @Override
     public double getBottomEdge() {
-        return y + image.getHeight() / 2;
+        return y + sprite.getHeight() / 2;
     }
 
     /**
      * @return The x-coordinate of the left edge of the platform.
      */
+    @Override
     public double getLeftEdge() {
-        return x - image.getWidth() / 2;
+        return x - sprite.getWidth() / 2;
     }
 
     /**
      * @return The x-coordinate of the right edge of the platform.
      */
+    @Override
     public double getRightEdge() {
-        return x + image.getWidth() / 2;
+        return x + sprite.getWidth() / 2;
     }
 
     /**
-     * @return The height of the platform's image.
+     * @return The height of the platform's sprite.
      */
     public double getHeight() {
-        return image.getHeight();
+        return sprite.getHeight();
     }
 }
@@ -1,6 +1,10 @@
 package pages;
 
 import bagel.*;
+import util.AssetCache;
+import util.TextLabel;
+
+import java.util.List;
 
 /**
  * The EndPage displays the game over or victory screen.
@@ -12,75 +16,96 @@ public class EndPage extends GamePage {
     // Background image of the screen
     private final Image background;
 
-    // Messages to display
-    private final String mainMessage;
-    private final String scoreMessage;
+    // The one end screen, reset for every game over
+    private static EndPage instance;
 
-    // Fonts for each text element
-    private final Font messageFont;
-    private final Font scoreFont;
-    private final Font promptFont;
+    // Messages to display, measured once; the main message is one of the outcome messages
+    private final TextLabel wonMessage;
+    private final TextLabel lostMessage;
+    private TextLabel mainMessage;
+    private final TextLabel scoreMessage;
+    private final TextLabel prompt;
+    private final ScoreBoard scoreBoard;
 
-    // Y-coordinates for positioning text vertically
+    // Positions of the text; every line is centred horizontally
+    private final double centerX;
     private final double mainY;
     private final double scoreY;
     private final double promptY;
+    private final double tableY;
 
     /**
-     * Constructs the EndPage with outcome-dependent messages and final score.
-     *
-     * @param gameWon   Whether the game was won or lost.
-     * @param score     The score achieved through gameplay.
-     * @param timeLeft  Remaining time in seconds, used to compute time bonus.
+     * Constructs the EndPage, loading its text and layout settings from game properties.
      */
-    public EndPage(boolean gameWon, int score, int timeLeft) {
-        background = new Image(GAME_PROPS.getProperty("backgroundImage"));
-
-        // Set message content based on win/loss
-        mainMessage = gameWon ? "CONGRATULATIONS, YOU WON!" : "GAME OVER, YOU LOST!";
-        scoreMessage = "YOUR FINAL SCORE " + (score + timeLeft * 3);
+    private EndPage() {
+        background = AssetCache.getImage(GAME_PROPS.getProperty("backgroundImage"));
 
-        // Load fonts and their sizes
-        messageFont = new Font(GAME_PROPS.getProperty("font"),
-                Integer.parseInt(GAME_PROPS.getProperty("gameEnd.status.fontSize")));
-        scoreFont = new Font(GAME_PROPS.getProperty("font"),
-                Integer.parseInt(GAME_PROPS.getProperty("gameEnd.scores.fontSize")));
-        promptFont = new Font(GAME_PROPS.getProperty("font"),
-                Integer.parseInt(GAME_PROPS.getProperty("home.prompt.fontSize")));
+        Font messageFont = getFont("gameEnd.status.fontSize");
+        wonMessage = new TextLabel(messageFont, "CONGRATULATIONS, YOU WON!");
+        lostMessage = new TextLabel(messageFont, "GAME OVER, YOU LOST!");
+        mainMessage = lostMessage;
+        scoreMessage = new TextLabel(getFont("gameEnd.scores.fontSize"), "YOUR FINAL SCORE ");
+        prompt = new TextLabel(getFont("home.prompt.fontSize"), "PRESS SPACE TO CONTINUE...");
+        scoreBoard = createScoreBoard();
 
-        // Calculate fixed vertical positions
+        // Calculate fixed positions
+        centerX = Double.parseDouble(GAME_PROPS.getProperty("window.width")) / 2;
         double windowHeight = Double.parseDouble(GAME_PROPS.getProperty("window.height"));
         mainY = Double.parseDouble(GAME_PROPS.getProperty("gameEnd.status.y"));
         scoreY = mainY + 60;
         promptY = windowHeight - 100;
+        tableY = Double.parseDouble(GAME_PROPS.getProperty("gameEnd.scores.y"));
+    }
+
+    /**
+     * Returns the end screen showing the outcome of a game, creating it on first use.
+     * The final score is saved to the high scores in the background.
+     *
+     * @param gameWon   Whether the game was won or lost.
+     * @param score     The score achieved through gameplay.
+     * @param timeLeft  Remaining time in seconds, used to compute time bonus.
+     * @return The end screen
+     */
+    public static EndPage show(boolean gameWon, int score, int timeLeft) {
+        if (instance == null) instance = new EndPage();
+        instance.mainMessage = gameWon ? instance.wonMessage : instance.lostMessage;
+        int finalScore = score + timeLeft * 3;
+        instance.scoreMessage.setValue(finalScore);
+        if (SCORES != null) SCORES.submit(finalScore);
+        instance.scoreBoard.refresh(SCORES);
+        return instance;
+    }
+
+    /**
+     * Returns the size keys of the end screen's fonts, so that they can be created before the
+     * first game over instead of stalling it.
+     *
+     * @return Font size keys used by the end screen
+     */
+    public static List<String> getFontSizeKeys() {
+        return List.of("gameEnd.status.fontSize", "gameEnd.scores.fontSize", "home.prompt.fontSize");
     }
 
     /**
      * Renders the end screen and checks for user input to return to home screen.
      *
      * @param input The current keyboard and mouse input.
+     * @param alpha Unused; the end screen has no moving entities.
      */
     @Override
-    public void update(Input input) {
-        double windowWidth = Double.parseDouble(GAME_PROPS.getProperty("window.width"));
-        String prompt = "PRESS SPACE TO CONTINUE...";
-
+    public void update(Input input, double alpha) {
         // Draw background image
         background.drawFromTopLeft(0, 0);
 
-        // Center messages horizontally
-        double mainX = (windowWidth - messageFont.getWidth(mainMessage)) / 2;
-        double scoreX = (windowWidth - scoreFont.getWidth(scoreMessage)) / 2;
-        double promptX = (windowWidth - promptFont.getWidth(prompt)) / 2;
-
         // Display game messages
-        messageFont.drawString(mainMessage, mainX, mainY);
-        scoreFont.drawString(scoreMessage, scoreX, scoreY);
-        promptFont.drawString(prompt, promptX, promptY);
+        mainMessage.drawCentered(centerX, mainY);
+        scoreMessage.drawCentered(centerX, scoreY);
+        prompt.drawCentered(centerX, promptY);
+        scoreBoard.draw(centerX, tableY);
 
         // Go back to home screen on SPACE key
         if (input.wasPressed(Keys.SPACE)) {
-            setNextPage(new HomePage());
+            setNextPage(HomePage.get());
         }
     }
 }
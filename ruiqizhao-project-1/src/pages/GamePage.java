@@ -1,11 +1,23 @@
 package pages;
 
+import bagel.Font;
 import bagel.Input;
+import simulation.GameEventBus;
+import simulation.InputState;
+import simulation.LevelConfig;
+import simulation.ReplayWriter;
+import util.FontRegistry;
+import util.FrameProfiler;
+import util.ScoreStore;
 import java.util.Properties;
 
 /**
  * Abstract base class for all pages in the game (e.g., HomePage, PlayingPage, EndPage).
  * Provides static property storage and transition handling between pages.
+ * <p>
+ * Pages other than the loading screen live for the whole session: each page class keeps one
+ * instance, created on first use and reset in place whenever it is shown again, so repeated
+ * rounds do not rebuild pages, entities or text.
  */
 public abstract class GamePage {
 
@@ -13,6 +25,21 @@ public abstract class GamePage {
     public static Properties GAME_PROPS;
     public static Properties MESSAGE_PROPS;
 
+    /** The level compiled from GAME_PROPS, shared by every game */
+    public static LevelConfig LEVEL;
+
+    /** Receives phase timings from the pages that measure them; may be null */
+    public static FrameProfiler PROFILER;
+
+    /** Carries the events of every game to consumers on other threads; may be null */
+    public static GameEventBus EVENTS;
+
+    /** Persistent high scores; null if no scores file is configured */
+    public static ScoreStore SCORES;
+
+    /** Saves the recording of every game; null if recording is disabled */
+    public static ReplayWriter REPLAYS;
+
     /** Reference to the next page to transition to */
     private static GamePage nextPage = null;
 
@@ -27,6 +54,71 @@ public abstract class GamePage {
         MESSAGE_PROPS = messageProps;
     }
 
+    /**
+     * Sets the compiled level that every new game is played on.
+     *
+     * @param level Level compiled from the game properties
+     */
+    public static void setLevel(LevelConfig level) {
+        LEVEL = level;
+    }
+
+    /**
+     * Sets the profiler shared by all pages.
+     *
+     * @param profiler The session's profiler, or null to disable profiling
+     */
+    public static void setProfiler(FrameProfiler profiler) {
+        PROFILER = profiler;
+    }
+
+    /**
+     * Sets the event bus that every game publishes to.
+     *
+     * @param events The session's event bus, or null to publish no events
+     */
+    public static void setEventBus(GameEventBus events) {
+        EVENTS = events;
+    }
+
+    /**
+     * Sets the high score store shared by all pages.
+     *
+     * @param scores The session's score store, or null to keep no scores
+     */
+    public static void setScores(ScoreStore scores) {
+        SCORES = scores;
+    }
+
+    /**
+     * Sets the writer that saves every game's recording.
+     *
+     * @param replays The session's replay writer, or null to record nothing
+     */
+    public static void setReplays(ReplayWriter replays) {
+        REPLAYS = replays;
+    }
+
+    /**
+     * Creates the high score table drawn by the home and end screens.
+     *
+     * @return An empty table, filled by {@link ScoreBoard#refresh}
+     */
+    static ScoreBoard createScoreBoard() {
+        return new ScoreBoard(getFont("gameEnd.scores.fontSize"),
+                Integer.parseInt(GAME_PROPS.getProperty("gameEnd.scores.count")));
+    }
+
+    /**
+     * Returns the shared game font at the size configured under a property key.
+     *
+     * @param sizeKey Key of the font size in the game properties
+     * @return The cached font
+     */
+    protected static Font getFont(String sizeKey) {
+        return FontRegistry.get(GAME_PROPS.getProperty("font"), Integer.parseInt(GAME_PROPS.getProperty(sizeKey)));
+    }
+
     /**
      * Requests a transition to another page.
      *
@@ -36,6 +128,13 @@ public abstract class GamePage {
         nextPage = page;
     }
 
+    /**
+     * @return True if a transition has been requested and not yet consumed
+     */
+    public static boolean hasNextPage() {
+        return nextPage != null;
+    }
+
     /**
      * Returns the next page (if set), and resets the transition.
      *
@@ -47,11 +146,21 @@ public abstract class GamePage {
         return temp;
     }
 
+    /**
+     * Advances the page's simulation by one fixed-length tick.
+     * Called zero or more times per rendered frame; pages without a simulation ignore it.
+     *
+     * @param input Control snapshot for this tick
+     */
+    public void tick(InputState input) {
+    }
+
     /**
      * Abstract update method that all page subclasses must implement.
-     * Called every frame to render and process input.
+     * Called once every rendered frame to render and process menu input.
      *
      * @param input The current input state from keyboard/mouse
+     * @param alpha Fraction of a tick elapsed since the last tick, used to interpolate drawing
      */
-    public abstract void update(Input input);
+    public abstract void update(Input input, double alpha);
 }
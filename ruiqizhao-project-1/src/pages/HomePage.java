@@ -1,12 +1,19 @@
 package pages;
 
 import bagel.*;
+import util.AssetCache;
+
+import java.util.List;
 
 /**
  * Represents the home screen of the game.
  * Displays the game title and prompt message, and transitions to the playing page when ENTER is pressed.
+ * The first game is built in the background while the home screen is shown.
  */
 public class HomePage extends GamePage {
+    // The one home screen, shown again after every round
+    private static HomePage instance;
+
     private final Image background;
     private final Font titleFont;
     private final Font promptFont;
@@ -14,22 +21,22 @@ public class HomePage extends GamePage {
     private final String prompt;
     private final double titleX, titleY;
     private final double promptX, promptY;
+    private final ScoreBoard scoreBoard;
+    private final double centerX, tableY;
 
     /**
      * Initialises the HomePage by loading background, text content, and layout settings from game properties.
      */
-    public HomePage() {
-        background = new Image(GAME_PROPS.getProperty("backgroundImage"));
+    private HomePage() {
+        background = AssetCache.getImage(GAME_PROPS.getProperty("backgroundImage"));
 
         double windowWidth = Double.parseDouble(GAME_PROPS.getProperty("window.width"));
 
         title = MESSAGE_PROPS.getProperty("home.title");
         prompt = MESSAGE_PROPS.getProperty("home.prompt");
 
-        titleFont = new Font(GAME_PROPS.getProperty("font"),
-                Integer.parseInt(GAME_PROPS.getProperty("home.title.fontSize")));
-        promptFont = new Font(GAME_PROPS.getProperty("font"),
-                Integer.parseInt(GAME_PROPS.getProperty("home.prompt.fontSize")));
+        titleFont = getFont("home.title.fontSize");
+        promptFont = getFont("home.prompt.fontSize");
 
         titleY = Double.parseDouble(GAME_PROPS.getProperty("home.title.y"));
         promptY = Double.parseDouble(GAME_PROPS.getProperty("home.prompt.y"));
@@ -37,22 +44,45 @@ public class HomePage extends GamePage {
         // Center the text horizontally
         titleX = (windowWidth - titleFont.getWidth(title)) / 2;
         promptX = (windowWidth - promptFont.getWidth(prompt)) / 2;
+
+        // High scores above the title
+        scoreBoard = createScoreBoard();
+        centerX = windowWidth / 2;
+        tableY = Double.parseDouble(GAME_PROPS.getProperty("gameEnd.scores.y"));
+
+        // Preload the level so that starting the game does not load any textures
+        AssetCache.preload(PlayingPage.getLevelImagePaths());
+        PlayingPage.prepare();
+    }
+
+    /** @return The home screen, created on first use, with the latest high scores. */
+    public static HomePage get() {
+        if (instance == null) instance = new HomePage();
+        instance.scoreBoard.refresh(SCORES);
+        return instance;
+    }
+
+    /** @return Size keys of the fonts drawn on the home screen. */
+    public static List<String> getFontSizeKeys() {
+        return List.of("home.title.fontSize", "home.prompt.fontSize", "gameEnd.scores.fontSize");
     }
 
     /**
      * Renders the home screen and listens for ENTER key to begin the game.
      * @param input The user's current keyboard input.
+     * @param alpha Unused; the home screen has no moving entities.
      */
     @Override
-    public void update(Input input) {
+    public void update(Input input, double alpha) {
         // Draw background and text
         background.drawFromTopLeft(0, 0);
         titleFont.drawString(title, titleX, titleY);
         promptFont.drawString(prompt, promptX, promptY);
+        scoreBoard.draw(centerX, tableY);
 
         // Start game when ENTER is pressed
         if (input.wasPressed(Keys.ENTER)) {
-            setNextPage(new PlayingPage());
+            setNextPage(PlayingPage.start());
         }
     }
 }
@@ -0,0 +1,76 @@
+package pages;
+
+import bagel.*;
+import bagel.util.Colour;
+import simulation.LevelConfig;
+import util.AssetPreloader;
+import util.TextLabel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The LoadingPage is shown at startup while the game's assets and level load.
+ * <p>
+ * Image files are read by background workers and turned into textures a few per frame, then
+ * the fonts are created one per frame, and finally the level is compiled on a worker. The page
+ * only draws a progress bar and one line of text, so the window keeps responding throughout.
+ * Once everything is ready it moves on to the home screen.
+ */
+public class LoadingPage extends GamePage {
+    // Time spent creating textures per frame, leaving the rest of a 60 Hz frame for drawing
+    private static final long FRAME_BUDGET_NANOS = 8_000_000;
+
+    private static final double BAR_WIDTH = 400, BAR_HEIGHT = 16;
+
+    private final AssetPreloader images;
+    private final List<String> fontSizeKeys = new ArrayList<>();
+    private int fontsCreated;
+    private CompletableFuture<LevelConfig> level;
+
+    private final TextLabel message;
+    private final double centerX, centerY;
+
+    /**
+     * Starts reading the assets of every page in the background.
+     */
+    public LoadingPage() {
+        images = new AssetPreloader(PlayingPage.getLevelImagePaths(), List.of(GAME_PROPS.getProperty("font")));
+        fontSizeKeys.addAll(HomePage.getFontSizeKeys());
+        fontSizeKeys.addAll(PlayingPage.getFontSizeKeys());
+        fontSizeKeys.addAll(EndPage.getFontSizeKeys());
+
+        message = new TextLabel(getFont("home.prompt.fontSize"), "LOADING...");
+        centerX = Double.parseDouble(GAME_PROPS.getProperty("window.width")) / 2;
+        centerY = Double.parseDouble(GAME_PROPS.getProperty("window.height")) / 2;
+    }
+
+    /**
+     * Advances loading by one frame's worth of work and draws the progress.
+     *
+     * @param input Unused; loading cannot be skipped.
+     * @param alpha Unused; the loading screen has no moving entities.
+     */
+    @Override
+    public void update(Input input, double alpha) {
+        if (!images.isDone()) {
+            images.createSome(FRAME_BUDGET_NANOS);
+        } else if (fontsCreated < fontSizeKeys.size()) {
+            getFont(fontSizeKeys.get(fontsCreated++));
+        } else if (level == null) {
+            // Compiling reads sprite sizes, which are all cached by now
+            level = CompletableFuture.supplyAsync(() -> LevelConfig.load(GAME_PROPS), AssetPreloader.WORKERS);
+        } else if (level.isDone()) {
+            // Parsed and snapped once; every game after this reuses it
+            setLevel(level.join());
+            setNextPage(HomePage.get());
+        }
+
+        double progress = images.getProgress() * 0.8 + 0.1 * fontsCreated / fontSizeKeys.size()
+                + (level != null && level.isDone() ? 0.1 : 0);
+        Drawing.drawRectangle(centerX - BAR_WIDTH / 2, centerY, BAR_WIDTH, BAR_HEIGHT, Colour.BLACK);
+        Drawing.drawRectangle(centerX - BAR_WIDTH / 2, centerY, BAR_WIDTH * progress, BAR_HEIGHT, Colour.WHITE);
+        message.drawCentered(centerX, centerY - 20);
+    }
+}
@@ -1,367 +1,231 @@
 /**
- * The PlayingPage class handles the core gameplay loop for Shadow Donkey Kong.
- * It manages the rendering and updating of all game entities, player interactions,
- * scoring logic, game win/lose conditions, and ladder/platform physics.
+ * The PlayingPage class renders the core gameplay of Shadow Donkey Kong.
+ * It steps a {@link GameWorld}, which owns all game entities and rules, once per
+ * fixed-length tick, and draws the resulting state and the score display every frame.
+ * Levels larger than the window scroll to follow Mario; the background and HUD stay fixed.
  */
 package pages;
 
 import bagel.*;
 import entities.*;
-import util.EntityLoader;
+import simulation.GameWorld;
+import simulation.InputLog;
+import simulation.InputState;
+import util.AssetCache;
+import util.AssetPreloader;
+import util.Camera;
+import util.FrameProfiler;
+import util.FrameProfiler.Phase;
+import util.LatencyHistogram;
+import util.Sprite;
+import util.TextLabel;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 public class PlayingPage extends GamePage {
-    // Constants for gameplay behavior and UI
-    private static final int CLIMB_SPEED = 2;
-    private static final int PLATFORM_SNAP_BUFFER = 5;
-    private static final int SCORE_JUMP_OVER = 30;
-    private static final int SCORE_BARREL_DESTROYED = 100;
+    // The one playing page, reset at the start of every round after the first
+    private static PlayingPage instance;
 
-    // Core game entities and UI elements
-    private final Image background;
-    private final Mario mario;
-    private final Donkey donkey;
-    private final Hammer hammer;
-    private final List<Platform> platforms = new ArrayList<>();
-    private final List<Ladder> ladders = new ArrayList<>();
-    private final List<Barrel> barrels = new ArrayList<>();
-    private final List<Barrel> barrelsScoredThisJump = new ArrayList<>();
-    private final Font font;
-    private final int scoreX, scoreY, maxFrames;
+    // The first game, built in the background before the page exists
+    private static CompletableFuture<GameWorld> preparedWorld;
 
-    // Game state trackers
-    private int score = 0;
-    private int frame = 0;
-    private boolean gameOver = false;
-    private boolean gameWon = false;
-    private boolean wasOnGroundLastFrame = true;
+    // Simulation being rendered
+    private final GameWorld world;
 
-    /**
-     * Constructs the playing page, initialising game assets and entities.
-     */
-    public PlayingPage() {
-        Properties gameProps = GAME_PROPS;
-        Properties messageProps = MESSAGE_PROPS;
+    // Controls of every tick so far, or null if recording is disabled
+    private final InputLog recording;
 
-        background = new Image(gameProps.getProperty("backgroundImage"));
+    // View onto the world, centred on Mario
+    private final Camera camera;
 
-        mario = new Mario("res/mario_right.png",
-                Double.parseDouble(gameProps.getProperty("mario.start.x")),
-                Double.parseDouble(gameProps.getProperty("mario.start.y")));
+    // UI elements
+    private final Image background;
+    private final TextLabel scoreLabel;
+    private final TextLabel timeLabel;
+    private final int scoreX, scoreY;
 
-        donkey = new Donkey("res/donkey_kong.png",
-                Double.parseDouble(gameProps.getProperty("donkey.start.x")),
-                Double.parseDouble(gameProps.getProperty("donkey.start.y")));
+    // Time shown on the HUD, taken before the latest tick as the score display always has
+    private int hudTimeLeft;
 
-        hammer = new Hammer("res/hammer.png",
-                Double.parseDouble(gameProps.getProperty("hammer.start.x")),
-                Double.parseDouble(gameProps.getProperty("hammer.start.y")));
+    // Profiler overlay, toggled with F3; visibility carries over to the next game
+    private static boolean showProfiler = false;
+    private final Font profilerFont;
+    private final int profilerX, profilerY;
+    private final String[] profilerLines = new String[Phase.values().length];
 
-        initializePlatforms(gameProps);
-        initializeLadders();
-        initializeBarrels();
+    /**
+     * Constructs the playing page for a game that was built ahead of time.
+     *
+     * @param world A new game on {@link #LEVEL}, not yet stepped
+     */
+    private PlayingPage(GameWorld world) {
+        Properties gameProps = GAME_PROPS;
 
-        font = new Font(gameProps.getProperty("font"),
-                Integer.parseInt(gameProps.getProperty("gamePlay.score.fontSize")));
+        background = AssetCache.getImage(gameProps.getProperty("backgroundImage"));
+        this.world = world;
+        world.setProfiler(PROFILER);
+        world.setEventBus(EVENTS);
+        hudTimeLeft = world.getTimeLeft();
+        camera = new Camera(Window.getWidth(), Window.getHeight(), LEVEL.getWorldWidth(), LEVEL.getWorldHeight());
+        recording = REPLAYS != null
+                ? new InputLog(LEVEL.getLevelHash(), LEVEL.getMaxFrames()) : null;
+
+        Font font = getFont("gamePlay.score.fontSize");
+        scoreLabel = new TextLabel(font, "SCORE ");
+        timeLabel = new TextLabel(font, "TIME LEFT ");
         scoreX = Integer.parseInt(gameProps.getProperty("gamePlay.score.x"));
         scoreY = Integer.parseInt(gameProps.getProperty("gamePlay.score.y"));
-        maxFrames = Integer.parseInt(gameProps.getProperty("gamePlay.maxFrames"));
+
+        profilerFont = getFont("profiler.overlay.fontSize");
+        profilerX = Integer.parseInt(gameProps.getProperty("profiler.overlay.x"));
+        profilerY = Integer.parseInt(gameProps.getProperty("profiler.overlay.y"));
+        Arrays.fill(profilerLines, "");
     }
 
     /**
-     * Main update method called every frame. Controls logic flow, rendering,
-     * physics, input, and win/loss state transitions.
+     * Starts building the first game on a worker thread, so that it is ready when the player
+     * starts. Does nothing once the page exists, since later rounds reset its game instead.
      */
-    @Override
-    public void update(Input input) {
-        mario.tickClimbingBuffer();
-
-        int timeLeft = (maxFrames - frame) / 60;
-        if (gameOver || gameWon) {
-            GamePage.setNextPage(new EndPage(gameWon, score, timeLeft));
-            return;
-        }
-
-        frame++;
-        background.drawFromTopLeft(0, 0);
-
-        mario.update(input);
-        mario.applyGravityIfNeeded();
-
-        donkey.update(input);
-        donkey.applyGravity();
-
-        checkBarrelJumpScore();
-        updateBarrels(input);
-        handleHammerPickup();
-        checkWinOrLoseConditions();
-
-        checkPlatformCollision(mario);
-        checkPlatformCollision(donkey);
-        for (Barrel b : barrels) checkPlatformCollision(b);
-
-        handleLadderClimbing(input);
-
-        drawAll();
-        drawScore(timeLeft);
-    }
-
-    /** Loads and creates platform entities from config. */
-    private void initializePlatforms(Properties gameProps) {
-        String[] platformData = gameProps.getProperty("platforms").split(";");
-        for (String coord : platformData) {
-            String[] xy = coord.split(",");
-            platforms.add(new Platform(Double.parseDouble(xy[0]), Double.parseDouble(xy[1])));
+    public static void prepare() {
+        if (instance == null && preparedWorld == null) {
+            preparedWorld = CompletableFuture.supplyAsync(() -> new GameWorld(LEVEL), AssetPreloader.WORKERS);
         }
     }
 
-    /** Loads ladder entities and aligns them above platforms. */
-    private void initializeLadders() {
-        List<Ladder> loadedLadders = EntityLoader.loadLadders("res/app.properties");
-        for (Ladder ladder : loadedLadders) {
-            for (Platform platform : platforms) {
-                if (ladder.isOverlappingPlatform(platform)) {
-                    ladder.snapAbovePlatform(platform);
-                    break;
-                }
-            }
-            ladders.add(ladder);
+    /**
+     * Returns the playing page with a new game ready to start, creating the page on first use
+     * and otherwise resetting its game in place.
+     *
+     * @return The playing page
+     */
+    public static PlayingPage start() {
+        if (instance == null) {
+            instance = new PlayingPage(preparedWorld != null ? preparedWorld.join() : new GameWorld(LEVEL));
+            preparedWorld = null;
+        } else {
+            instance.reset();
         }
+        return instance;
     }
 
-    /** Loads barrels and aligns them on platforms. */
-    private void initializeBarrels() {
-        List<Barrel> loadedBarrels = EntityLoader.loadBarrels("res/app.properties");
-        for (Barrel barrel : loadedBarrels) {
-            for (Platform platform : platforms) {
-                if (barrel.isOverlappingPlatform(platform)) {
-                    barrel.snapAbovePlatform(platform);
-                    break;
-                }
-            }
-            barrels.add(barrel);
-        }
+    /** Restarts the level and empties the recording, reusing every entity and buffer. */
+    private void reset() {
+        world.reset();
+        hudTimeLeft = world.getTimeLeft();
+        if (recording != null) recording.clear();
     }
 
     /**
-     * Scores Mario's successful jump over a barrel if aligned and not obstructed by a platform.
+     * Returns the size keys of every font drawn while a level is being played, so that the
+     * fonts can be created before the level starts.
+     *
+     * @return Font size keys used by the level
      */
-    private void checkBarrelJumpScore() {
-        if (!mario.isJumping()) return;
-
-        for (Barrel b : barrels) {
-            if (barrelsScoredThisJump.contains(b)) continue;
-
-            boolean horizontallyAligned = mario.getRightEdge() >= b.getLeftEdge()
-                    && mario.getLeftEdge() <= b.getRightEdge();
-            boolean marioAbove = mario.getBottomEdge() < b.getTopEdge();
-
-            if (horizontallyAligned && marioAbove && !isBlockedByPlatform(mario, b)) {
-                score += SCORE_JUMP_OVER;
-                barrelsScoredThisJump.add(b);
-            }
-        }
-
-        boolean landed = mario.isOnGround() && !wasOnGroundLastFrame;
-        if (landed) barrelsScoredThisJump.clear();
-        wasOnGroundLastFrame = mario.isOnGround();
+    public static List<String> getFontSizeKeys() {
+        return List.of("gamePlay.score.fontSize", "profiler.overlay.fontSize");
     }
 
     /**
-     * Checks if a platform exists between Mario and a barrel blocking the jump score.
+     * Returns every image drawn while a level is being played, so that it can be
+     * preloaded before the level starts.
+     *
+     * @return Image paths used by the level
      */
-    private boolean isBlockedByPlatform(Mario mario, Barrel b) {
-        for (Platform p : platforms) {
-            boolean overlapsHorizontally = p.getRightEdge() >= mario.getLeftEdge()
-                    && p.getLeftEdge() <= mario.getRightEdge();
-            boolean platformBetween = p.getTopEdge() < b.getTopEdge()
-                    && p.getTopEdge() > mario.getBottomEdge();
-            if (overlapsHorizontally && platformBetween) return true;
-        }
-        return false;
+    public static List<String> getLevelImagePaths() {
+        List<String> paths = new ArrayList<>();
+        paths.add(GAME_PROPS.getProperty("backgroundImage"));
+        paths.addAll(Mario.SPRITE_PATHS);
+        paths.add(GameWorld.DONKEY_IMAGE);
+        paths.add(GameWorld.HAMMER_IMAGE);
+        paths.addAll(GameWorld.TERRAIN_IMAGES);
+        return paths;
     }
 
     /**
-     * Updates barrel logic, including interaction with Mario and drawing.
+     * Advances the game world by one tick, or transitions to the end screen
+     * once the game has finished.
      */
-    private void updateBarrels(Input input) {
-        Iterator<Barrel> iterator = barrels.iterator();
-        while (iterator.hasNext()) {
-            Barrel b = iterator.next();
-            b.update(input);
-
-            if (mario.hasHammer() && mario.getBoundingBox().intersects(b.getBoundingBox())) {
-                iterator.remove();
-                score += SCORE_BARREL_DESTROYED;
-            } else if (!mario.hasHammer() && mario.getBoundingBox().intersects(b.getBoundingBox())) {
-                gameOver = true;
-            } else {
-                b.draw();
-            }
-        }
-    }
-
-    /** Handles hammer pickup and gives Mario invincibility. */
-    private void handleHammerPickup() {
-        if (!hammer.isCollected() && mario.getBoundingBox().intersects(hammer.getBoundingBox())) {
-            hammer.collect();
-            mario.collectHammer();
-        }
-    }
-
-    /** Determines whether Mario has reached win or lose conditions. */
-    private void checkWinOrLoseConditions() {
-        if (!mario.hasHammer() && mario.getBoundingBox().intersects(donkey.getBoundingBox())) {
-            gameOver = true;
-        }
-        if (mario.hasHammer() && mario.getBoundingBox().intersects(donkey.getBoundingBox())) {
-            gameWon = true;
-        }
-        if (frame >= maxFrames) {
-            gameOver = true;
+    @Override
+    public void tick(InputState input) {
+        if (world.isFinished()) {
+            saveRecording();
+            GamePage.setNextPage(EndPage.show(world.isGameWon(), world.getScore(), world.getTimeLeft()));
+            return;
         }
+        hudTimeLeft = world.getTimeLeft();
+        if (recording != null) recording.append(input);
+        world.step(input);
     }
 
-    /** Draws all entities in the correct order. */
-    private void drawAll() {
-        for (Platform p : platforms) p.draw();
-        for (Ladder l : ladders) l.draw();
-        donkey.draw();
-        mario.draw();
-        hammer.draw();
-    }
-
-    /** Draws score and time left on screen. */
-    private void drawScore(int timeLeft) {
-        font.drawString("SCORE " + score, scoreX, scoreY);
-        font.drawString("TIME LEFT " + timeLeft, scoreX, scoreY + 30);
+    /** Queues the recording of the finished game for the replay writer, if recording is enabled. */
+    private void saveRecording() {
+        if (recording != null) REPLAYS.submit(recording);
     }
 
-    /** Handles collision between entities and platforms. */
-    private boolean checkPlatformCollision(Entity entity) {
-        if (entity instanceof Mario mario && mario.isClimbingBuffered()) return false;
-
-        double velocityY = entity.getVelocityY();
-        double currentBottom = entity.getBottomEdge();
-        double futureBottom = entity.getY() + velocityY + entity.getHeight();
-
-        for (Platform p : platforms) {
-            if (isFallingOntoPlatform(entity, p, currentBottom, futureBottom, velocityY)) {
-                entity.setY(p.getTopEdge() - entity.getHeight());
-                entity.stopFalling();
-                if (entity instanceof Mario m) m.setOnGround(true);
-                return true;
-            }
-        }
-        return false;
-    }
-
-    /** Checks if an entity is falling onto a platform based on future Y position. */
-    private boolean isFallingOntoPlatform(Entity entity, Platform p, double currentBottom, double futureBottom, double velocityY) {
-        boolean horizontalOverlap = entity.getRightEdge() >= p.getLeftEdge()
-                && entity.getLeftEdge() <= p.getRightEdge();
-
-        boolean fallingOntoPlatform = currentBottom <= p.getTopEdge() + PLATFORM_SNAP_BUFFER &&
-                futureBottom >= p.getTopEdge() && velocityY > 0;
-
-        return horizontalOverlap && fallingOntoPlatform;
-    }
-
-    /** Handles Mario's interaction with ladders and climbing mechanics. */
-    private void handleLadderClimbing(Input input) {
-        boolean onLadder = false;
-
-        for (Ladder ladder : ladders) {
-            if (mario.getBoundingBox().intersects(ladder.getBoundingBox())) {
-                onLadder = true;
-
-                if (input.isDown(Keys.UP)) {
-                    mario.setY(mario.getTopEdge() - CLIMB_SPEED);
-                    mario.setClimbing(true);
-                    mario.setOnGround(true);
-                    return;
-                } else if (input.isDown(Keys.DOWN)) {
-                    if (!canClimbDown(ladder)) return;
-                    mario.setY(mario.getY() + CLIMB_SPEED);
-                    mario.setClimbing(true);
-                    mario.setOnGround(true);
-                    return;
-                } else {
-                    mario.setClimbing(true);
-                    mario.setOnGround(true);
-                    return;
-                }
-            }
-        }
+    /**
+     * Renders the game world, interpolated between the last two ticks, and the score display.
+     */
+    @Override
+    public void update(Input input, double alpha) {
+        if (input.wasPressed(Keys.F3)) showProfiler = !showProfiler;
 
-        for (Ladder ladder : ladders) {
-            if (input.isDown(Keys.DOWN) && mario.isAboveLadder(ladder)) {
-                if (isOnPlatformAbove(ladder)) {
-                    mario.setClimbing(true);
-                    mario.setY(mario.getY() + CLIMB_SPEED);
-                    mario.setOnGround(true);
-                    return;
-                }
-            }
-        }
+        long start = System.nanoTime();
+        background.drawFromTopLeft(0, 0);
+        drawAll(alpha);
+        long worldDrawn = System.nanoTime();
+        drawScore(hudTimeLeft);
+        long hudDrawn = System.nanoTime();
 
-        if (!onLadder) {
-            mario.setClimbing(false);
-            mario.setOnGround(isStandingOnPlatform());
+        if (PROFILER != null) {
+            PROFILER.record(Phase.DRAW_WORLD, worldDrawn - start);
+            PROFILER.record(Phase.DRAW_HUD, hudDrawn - worldDrawn);
+            if (PROFILER.rollWindow(hudDrawn)) updateProfilerLines(PROFILER);
+            if (showProfiler) drawProfiler();
         }
     }
 
     /**
-     * Checks if Mario can descend without being blocked by a non-ladder-covered platform.
+     * Scrolls the view to Mario's drawn position and draws all entities in the correct order.
+     * Sprites outside the view are culled by {@link Sprite#drawFromTopLeft}.
      */
-    private boolean canClimbDown(Ladder ladder) {
-        for (Platform p : platforms) {
-            boolean horizontalOverlap = mario.getRightEdge() >= p.getLeftEdge()
-                    && mario.getLeftEdge() <= p.getRightEdge();
-
-            boolean intersectsPlatform = mario.getBottomEdge() >= p.getTopEdge()
-                    && mario.getY() + CLIMB_SPEED + mario.getHeight() <= p.getTopEdge() + p.getHeight();
+    private void drawAll(double alpha) {
+        Mario mario = world.getMario();
+        camera.follow(mario.getDrawX(alpha) + mario.getWidth() / 2, mario.getDrawY(alpha) + mario.getHeight() / 2);
+        Sprite.setView(camera.getLeft(), camera.getTop(), camera.getRight(), camera.getBottom());
 
-            boolean ladderCoversPlatform = ladder.getTopEdge() <= p.getTopEdge()
-                    && ladder.getBottomEdge() >= p.getTopEdge() + p.getHeight();
-
-            if (horizontalOverlap && intersectsPlatform && !ladderCoversPlatform) {
-                mario.setY(p.getTopEdge() - mario.getHeight());
-                mario.setClimbing(false);
-                mario.setOnGround(true);
-                return false;
-            }
-        }
-        return true;
+        world.getBarrels().drawAll(alpha);
+        for (Platform p : world.getActivePlatforms()) p.draw();
+        for (Ladder l : world.getActiveLadders()) l.draw();
+        world.getDonkey().draw(alpha);
+        world.getMario().draw(alpha);
+        world.getHammer().draw(alpha);
     }
 
-    /** Checks if Mario is on a platform directly above a ladder and aligned with it. */
-    private boolean isOnPlatformAbove(Ladder ladder) {
-        for (Platform p : platforms) {
-            boolean closeToPlatform = Math.abs(mario.getBottomEdge() - p.getTopEdge()) <= 2;
-            boolean overlapsPlatform = mario.getRightEdge() >= p.getLeftEdge()
-                    && mario.getLeftEdge() <= p.getRightEdge();
-            boolean overlapsLadder = mario.getRightEdge() >= ladder.getLeftEdge()
-                    && mario.getLeftEdge() <= ladder.getRightEdge();
+    /** Draws score and time left on screen; the text is only rebuilt when a value changes. */
+    private void drawScore(int timeLeft) {
+        scoreLabel.setValue(world.getScore()).draw(scoreX, scoreY);
+        timeLabel.setValue(timeLeft).draw(scoreX, scoreY + 30);
+    }
 
-            if (closeToPlatform && overlapsPlatform && overlapsLadder) {
-                return true;
-            }
+    /** Rebuilds the overlay text from the last profiler window, once per window rather than every frame. */
+    private void updateProfilerLines(FrameProfiler profiler) {
+        for (Phase phase : Phase.values()) {
+            LatencyHistogram h = profiler.getLastWindow(phase);
+            profilerLines[phase.ordinal()] = String.format("%-10s P50 %s P99 %s MAX %s", phase,
+                    formatMicros(h.getValueAtPercentile(50)), formatMicros(h.getValueAtPercentile(99)),
+                    formatMicros(h.getMax()));
         }
-        return false;
     }
 
-    /** Checks if Mario is standing on any platform. */
-    private boolean isStandingOnPlatform() {
-        for (Platform p : platforms) {
-            boolean horizontal = mario.getRightEdge() >= p.getLeftEdge()
-                    && mario.getLeftEdge() <= p.getRightEdge();
-
-            boolean onTop = Math.abs(mario.getBottomEdge() - p.getTopEdge()) <= 2;
+    private static String formatMicros(long nanos) {
+        return String.format("%.1fUS", nanos / 1000.0);
+    }
 
-            if (horizontal && onTop) return true;
+    /** Draws per-phase timings next to the score. */
+    private void drawProfiler() {
+        for (int i = 0; i < profilerLines.length; i++) {
+            profilerFont.drawString(profilerLines[i], profilerX, profilerY + i * 16);
         }
-        return false;
     }
 }
@@ -0,0 +1,60 @@
+package pages;
+
+import bagel.Font;
+import util.ScoreStore;
+import util.TextLabel;
+
+/**
+ * The high score table shown on the home and end screens.
+ * <p>
+ * It holds one label per rank and copies the scores from the {@link ScoreStore} only when a
+ * page is shown, so drawing it every frame neither reads the store nor builds strings.
+ */
+class ScoreBoard {
+    // Vertical distance between the lines of the table
+    private static final double LINE_SPACING = 24;
+
+    private final TextLabel heading;
+    private final TextLabel[] ranks;
+    private int shown;
+
+    /**
+     * Creates an empty table.
+     *
+     * @param font Font for every line
+     * @param size Number of ranks to show
+     */
+    ScoreBoard(Font font, int size) {
+        heading = new TextLabel(font, "HIGH SCORES");
+        ranks = new TextLabel[size];
+        for (int i = 0; i < size; i++) {
+            ranks[i] = new TextLabel(font, (i + 1) + ". ");
+        }
+    }
+
+    /**
+     * Copies the current top scores into the table.
+     *
+     * @param store The score store, or null if scores are not kept
+     */
+    void refresh(ScoreStore store) {
+        shown = store == null ? 0 : Math.min(store.getTopCount(), ranks.length);
+        for (int i = 0; i < shown; i++) {
+            ranks[i].setValue(store.getTopScore(i));
+        }
+    }
+
+    /**
+     * Draws the table centred horizontally, unless no score has been recorded yet.
+     *
+     * @param centerX X-coordinate of the table's centre
+     * @param y       Baseline of the heading
+     */
+    void draw(double centerX, double y) {
+        if (shown == 0) return;
+        heading.drawCentered(centerX, y);
+        for (int i = 0; i < shown; i++) {
+            ranks[i].drawCentered(centerX, y + (i + 1) * LINE_SPACING);
+        }
+    }
+}
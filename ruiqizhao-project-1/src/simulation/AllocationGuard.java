@@ -0,0 +1,153 @@
+package simulation;
+
+import util.AssetCache;
+import util.FrameProfiler;
+import util.FrameProfiler.Phase;
+import util.IOUtils;
+import util.LatencyHistogram;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+/**
+ * Checks that the game loop allocates nothing once it has warmed up, and fails if it does.
+ * <p>
+ * Runs the loop {@code PlayingPage} runs every tick (record the input, step the world, restart
+ * the level in place when a game ends) with a scripted bot at the controls, and reads the bytes
+ * allocated by the thread before and after every tick. The world's profiler is pointed at the
+ * same counter for the whole run, warm-up included, so the code that is checked is the code
+ * that was warmed up, and the report breaks the allocations down by phase of the tick.
+ * <p>
+ * The warm-up lasts until a long stretch of consecutive ticks stays within the budget; if
+ * there is no such stretch within the warm-up limit the loop has no steady state and the check
+ * fails. After the warm-up the first tick over budget fails the check, and the exit status is
+ * 1 so that the build stops on it.
+ * <p>
+ * Run it with {@code -XX:TieredStopAtLevel=1}, as the build does, so that only the C1 compiler
+ * is used. C1 does no escape analysis, so an allocation that C2 happens to optimise away, and
+ * that comes back whenever C2's code is thrown away, still fails the check. C2's background
+ * recompiles also allocate a few hundred bytes inside the JVM now and then, hundreds of
+ * thousands of ticks in, which would make the check fail at random.
+ */
+public class AllocationGuard {
+    private final com.sun.management.ThreadMXBean threads;
+    private final GameWorld world;
+    private final FrameProfiler profiler;
+    private final InputLog recording;
+    private final Bot bot = new ScriptedBot(new Random(1));
+    private final InputState input = new InputState();
+
+    private final LatencyHistogram tickBytes = new LatencyHistogram();
+    private long lastBytes;
+
+    private AllocationGuard(com.sun.management.ThreadMXBean threads, LevelConfig level) {
+        this.threads = threads;
+        world = new GameWorld(level);
+        world.setEventBus(new GameEventBus(1024));
+        profiler = new FrameProfiler(threads::getCurrentThreadAllocatedBytes);
+        world.setProfiler(profiler);
+        recording = new InputLog(level.getLevelHash(), level.getMaxFrames());
+    }
+
+    /**
+     * Entry point for an allocation check.
+     *
+     * @param args Optional number of checked ticks (default 200,000), consecutive ticks within
+     *             budget that end the warm-up (default 50,000), most warm-up ticks (default
+     *             1,000,000) and budget in bytes per tick (default 0)
+     */
+    public static void main(String[] args) {
+        int ticks = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int steadyTicks = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+        int maxWarmUp = args.length > 2 ? Integer.parseInt(args[2]) : 1_000_000;
+        long budget = args.length > 3 ? Long.parseLong(args[3]) : 0;
+
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads)
+                || !threads.isThreadAllocatedMemorySupported()) {
+            System.err.println("This JVM cannot measure allocations per thread");
+            System.exit(2);
+            return;
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        AssetCache.setHeadless(true);
+        AllocationGuard guard = new AllocationGuard(threads,
+                LevelConfig.load(IOUtils.readPropertiesFile("res/app.properties")));
+
+        int warmUp = guard.warmUp(steadyTicks, maxWarmUp, budget);
+        if (warmUp < 0) {
+            guard.report(maxWarmUp);
+            System.out.printf("FAIL: no %d consecutive ticks within %d bytes in %d warm-up ticks%n",
+                    steadyTicks, budget, maxWarmUp);
+            System.exit(1);
+            return;
+        }
+        System.out.printf("Warmed up after %d ticks%n", warmUp);
+
+        guard.profiler.resetSession();
+        guard.tickBytes.reset();
+        int failed = guard.check(ticks, budget);
+        guard.report(failed < 0 ? ticks : failed + 1);
+        if (failed >= 0) {
+            System.out.printf("FAIL: tick %d allocated %d bytes, more than %d%n", failed, guard.lastBytes, budget);
+            System.exit(1);
+            return;
+        }
+        System.out.printf("PASS: none of %d ticks allocated more than %d bytes%n", ticks, budget);
+        System.exit(0);
+    }
+
+    /**
+     * Plays until a number of consecutive ticks stay within the budget.
+     *
+     * @return Ticks played, or -1 if the limit was reached first
+     */
+    private int warmUp(int steadyTicks, int maxTicks, long budget) {
+        int steady = 0;
+        for (int tick = 0; tick < maxTicks; tick++) {
+            steady = tick() <= budget ? steady + 1 : 0;
+            if (steady == steadyTicks) return tick + 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Plays a number of ticks, stopping at the first one over budget.
+     *
+     * @return The tick over budget, or -1 if there was none
+     */
+    private int check(int ticks, long budget) {
+        for (int tick = 0; tick < ticks; tick++) {
+            if (tick() > budget) return tick;
+        }
+        return -1;
+    }
+
+    /** Plays one tick and returns the bytes it allocated. */
+    private long tick() {
+        bot.decide(world, input);
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        if (world.isFinished()) {
+            world.reset();
+            recording.clear();
+        } else {
+            recording.append(input);
+            world.step(input);
+        }
+        lastBytes = threads.getCurrentThreadAllocatedBytes() - before;
+        tickBytes.record(lastBytes);
+        return lastBytes;
+    }
+
+    private void report(int ticks) {
+        System.out.printf("%-10s %12s %10s %10s   (over %d ticks)%n", "PHASE", "BYTES", "PER TICK", "MAX", ticks);
+        for (Phase phase : Phase.values()) {
+            LatencyHistogram h = profiler.getSession(phase);
+            if (h.getCount() == 0) continue;
+            System.out.printf("%-10s %12.0f %10.1f %10d%n", phase, h.getMean() * h.getCount(), h.getMean(), h.getMax());
+        }
+        System.out.printf("%-10s %12.0f %10.1f %10d%n", "TICK", tickBytes.getMean() * tickBytes.getCount(),
+                tickBytes.getMean(), tickBytes.getMax());
+    }
+}
@@ -0,0 +1,553 @@
+package simulation;
+
+import util.Sprite;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Packed storage for every entity with one exact set of {@link Component}s.
+ * <p>
+ * Each component the archetype has is a group of parallel primitive arrays indexed by row;
+ * components it lacks have no arrays at all. A system therefore walks contiguous memory of one
+ * kind of entity, with no objects to chase and no type checks. Rows never move: a destroyed
+ * entity leaves a hole that is pushed on a free list and reused by the next spawn, so a row
+ * number stays valid for as long as its entity lives, even while a system is iterating.
+ */
+public final class Archetype {
+    /** Downward acceleration applied every tick */
+    public static final double GRAVITY = 0.2;
+    /** Fall speed of new entities unless changed with {@link #setTerminalVelocity} */
+    public static final double DEFAULT_TERMINAL_VELOCITY = 10;
+
+    private final EntityStore store;
+    private final int components;
+    private final int defaultSprite;
+
+    // POSITION
+    private double[] x, y, previousX, previousY;
+    // VELOCITY
+    private double[] velocityY, terminalVelocity;
+    // SPRITE, as ids into the store's sprites
+    private int[] sprites;
+    // COLLIDER, kept equal to the sprite's size
+    private double[] width, height;
+    // CLIMBER
+    private boolean[] onGround, jumping, climbing;
+    private int[] climbingBuffer;
+    // COLLECTIBLE
+    private boolean[] collected;
+    // JUMPABLE
+    private boolean[] scoredThisJump;
+
+    private boolean[] alive;
+
+    // Rows [0, slotCount) have been used at least once; holes are listed in freeSlots
+    private int slotCount;
+    private int liveCount;
+    private int[] freeSlots;
+    private int freeCount;
+
+    /**
+     * Creates an empty archetype. Only {@link EntityStore} creates archetypes.
+     *
+     * @param store         The store owning the archetype and its sprites
+     * @param components    Mask of the archetype's components; must include {@link Component#POSITION}
+     * @param defaultSprite Sprite id new entities start with
+     * @param capacity      Number of entities to reserve room for
+     */
+    Archetype(EntityStore store, int components, int defaultSprite, int capacity) {
+        this.store = store;
+        this.components = components;
+        this.defaultSprite = defaultSprite;
+        allocate(Math.max(capacity, 4));
+    }
+
+    /** Creates or grows every array of the archetype's components to a capacity. */
+    private void allocate(int capacity) {
+        x = resize(x, capacity);
+        y = resize(y, capacity);
+        previousX = resize(previousX, capacity);
+        previousY = resize(previousY, capacity);
+        if (has(Component.VELOCITY)) {
+            velocityY = resize(velocityY, capacity);
+            terminalVelocity = resize(terminalVelocity, capacity);
+        }
+        if (has(Component.SPRITE)) {
+            sprites = sprites == null ? new int[capacity] : Arrays.copyOf(sprites, capacity);
+        }
+        if (has(Component.COLLIDER)) {
+            width = resize(width, capacity);
+            height = resize(height, capacity);
+        }
+        if (has(Component.CLIMBER)) {
+            onGround = resize(onGround, capacity);
+            jumping = resize(jumping, capacity);
+            climbing = resize(climbing, capacity);
+            climbingBuffer = climbingBuffer == null ? new int[capacity] : Arrays.copyOf(climbingBuffer, capacity);
+        }
+        if (has(Component.COLLECTIBLE)) collected = resize(collected, capacity);
+        if (has(Component.JUMPABLE)) scoredThisJump = resize(scoredThisJump, capacity);
+        alive = resize(alive, capacity);
+        freeSlots = freeSlots == null ? new int[capacity] : Arrays.copyOf(freeSlots, capacity);
+    }
+
+    private static double[] resize(double[] array, int capacity) {
+        return array == null ? new double[capacity] : Arrays.copyOf(array, capacity);
+    }
+
+    private static boolean[] resize(boolean[] array, int capacity) {
+        return array == null ? new boolean[capacity] : Arrays.copyOf(array, capacity);
+    }
+
+    /** @return Mask of the archetype's components. */
+    public int getComponents() {
+        return components;
+    }
+
+    /** @return True if the archetype has a component. */
+    public boolean has(Component component) {
+        return (components & component.bit()) != 0;
+    }
+
+    /** @return True if the archetype has every component in a mask. */
+    public boolean hasAll(int mask) {
+        return (components & mask) == mask;
+    }
+
+    // === Rows ===
+
+    /**
+     * Adds an entity at rest with the default sprite, reusing a free row when one exists.
+     *
+     * @param left Left x-coordinate of the entity
+     * @param top  Top y-coordinate of the entity
+     * @return The row of the new entity
+     */
+    public int spawn(double left, double top) {
+        int row;
+        if (freeCount > 0) {
+            row = freeSlots[--freeCount];
+        } else {
+            if (slotCount == x.length) allocate(x.length * 2);
+            row = slotCount++;
+        }
+        if (velocityY != null) terminalVelocity[row] = DEFAULT_TERMINAL_VELOCITY;
+        if (sprites != null) setSprite(row, defaultSprite);
+        reset(row, left, top);
+        alive[row] = true;
+        liveCount++;
+        return row;
+    }
+
+    /**
+     * Puts a live entity back at rest at a position, as if it had just spawned there.
+     * Its sprite and fall speed are kept.
+     *
+     * @param row  Row of a live entity
+     * @param left Left x-coordinate of the entity
+     * @param top  Top y-coordinate of the entity
+     */
+    public void reset(int row, double left, double top) {
+        teleport(row, left, top);
+        if (velocityY != null) velocityY[row] = 0;
+        if (onGround != null) {
+            onGround[row] = false;
+            jumping[row] = false;
+            climbing[row] = false;
+            climbingBuffer[row] = 0;
+        }
+        if (collected != null) collected[row] = false;
+        if (scoredThisJump != null) scoredThisJump[row] = false;
+    }
+
+    /**
+     * Destroys the entity in a row and makes the row available for reuse.
+     *
+     * @param row Row of a live entity
+     */
+    public void destroy(int row) {
+        alive[row] = false;
+        if (scoredThisJump != null) scoredThisJump[row] = false;
+        freeSlots[freeCount++] = row;
+        liveCount--;
+    }
+
+    /**
+     * Destroys every entity whose top is below a height, such as the bottom of the world.
+     * Nothing below it can ever land, so such entities would otherwise fall forever.
+     *
+     * @param bottom The y-coordinate below which entities are lost
+     * @return Number of entities destroyed
+     */
+    public int destroyBelow(double bottom) {
+        int destroyed = 0;
+        for (int i = 0; i < slotCount; i++) {
+            if (alive[i] && y[i] > bottom) {
+                destroy(i);
+                destroyed++;
+            }
+        }
+        return destroyed;
+    }
+
+    /** Removes every entity. */
+    public void clear() {
+        Arrays.fill(alive, 0, slotCount, false);
+        if (scoredThisJump != null) Arrays.fill(scoredThisJump, 0, slotCount, false);
+        slotCount = 0;
+        liveCount = 0;
+        freeCount = 0;
+    }
+
+    /** @return Number of rows ever used; every live entity has a row below this. */
+    public int getSlotCount() {
+        return slotCount;
+    }
+
+    /** @return Number of live entities. */
+    public int getLiveCount() {
+        return liveCount;
+    }
+
+    public boolean isAlive(int row) {
+        return alive[row];
+    }
+
+    // === Systems ===
+
+    /** Records every entity's position as the start of a new tick. */
+    public void savePreviousPositions() {
+        System.arraycopy(x, 0, previousX, 0, slotCount);
+        System.arraycopy(y, 0, previousY, 0, slotCount);
+    }
+
+    /**
+     * Finds the first live entity, from a row on, whose box overlaps a rectangle. Touching
+     * edges count as overlapping. Requires {@link Component#COLLIDER}.
+     *
+     * @param from First row to look at
+     * @return The entity's row, or -1 if there is none
+     */
+    public int findOverlapping(int from, double left, double top, double right, double bottom) {
+        for (int i = from; i < slotCount; i++) {
+            if (alive[i] && x[i] <= right && x[i] + width[i] >= left
+                    && y[i] <= bottom && y[i] + height[i] >= top) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Applies gravity to every live entity. Requires {@link Component#VELOCITY}.
+     */
+    public void applyGravity() {
+        applyGravity(0, slotCount);
+    }
+
+    /**
+     * Applies gravity to the live entities in a range of rows, skipping climbers that are
+     * standing or climbing. Requires {@link Component#VELOCITY}.
+     *
+     * @param from First row (inclusive)
+     * @param to   Last row (exclusive)
+     */
+    public void applyGravity(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!alive[i]) continue;
+            if (onGround != null && (onGround[i] || climbing[i])) continue;
+            applyGravity(i);
+        }
+    }
+
+    /**
+     * Applies one tick of gravity to one entity, whatever its state.
+     *
+     * @param row Row of a live entity with {@link Component#VELOCITY}
+     */
+    public void applyGravity(int row) {
+        double velocity = Math.min(velocityY[row] + GRAVITY, terminalVelocity[row]);
+        velocityY[row] = velocity;
+        y[row] += velocity;
+    }
+
+    /**
+     * Rests an entity on top of a surface and stops its fall; a climber is also standing again.
+     *
+     * @param row     Row of a live entity with {@link Component#VELOCITY} and {@link Component#COLLIDER}
+     * @param surface The y-coordinate of the surface
+     */
+    public void land(int row, double surface) {
+        y[row] = surface - height[row];
+        velocityY[row] = 0;
+        if (onGround != null) setOnGround(row, true);
+    }
+
+    /**
+     * Draws every live entity between its previous and current position, except collected ones.
+     * Requires {@link Component#SPRITE}.
+     *
+     * @param alpha Fraction of a tick elapsed since the last tick (0 = previous, 1 = current)
+     */
+    public void drawAll(double alpha) {
+        for (int i = 0; i < slotCount; i++) {
+            if (alive[i] && (collected == null || !collected[i])) draw(i, alpha);
+        }
+    }
+
+    /**
+     * Draws one entity between its previous and current position.
+     *
+     * @param row   Row of a live entity with {@link Component#SPRITE}
+     * @param alpha Fraction of a tick elapsed since the last tick (0 = previous, 1 = current)
+     */
+    public void draw(int row, double alpha) {
+        store.getSprite(sprites[row]).drawFromTopLeft(getDrawX(row, alpha), getDrawY(row, alpha));
+    }
+
+    // === POSITION ===
+
+    public double getX(int row) {
+        return x[row];
+    }
+
+    public double getY(int row) {
+        return y[row];
+    }
+
+    public void setX(int row, double value) {
+        x[row] = value;
+    }
+
+    public void setY(int row, double value) {
+        y[row] = value;
+    }
+
+    /** @return An entity's y-coordinate at the start of the tick. */
+    public double getPreviousY(int row) {
+        return previousY[row];
+    }
+
+    /** Moves an entity without interpolating from where it was, as if it had spawned there. */
+    public void teleport(int row, double left, double top) {
+        x[row] = left;
+        y[row] = top;
+        previousX[row] = left;
+        previousY[row] = top;
+    }
+
+    /** @return The x-coordinate an entity is drawn at, between its previous and current position. */
+    public double getDrawX(int row, double alpha) {
+        return previousX[row] + (x[row] - previousX[row]) * alpha;
+    }
+
+    /** @return The y-coordinate an entity is drawn at, between its previous and current position. */
+    public double getDrawY(int row, double alpha) {
+        return previousY[row] + (y[row] - previousY[row]) * alpha;
+    }
+
+    // === VELOCITY ===
+
+    public double getVelocityY(int row) {
+        return velocityY[row];
+    }
+
+    public void setVelocityY(int row, double value) {
+        velocityY[row] = value;
+    }
+
+    public void setTerminalVelocity(int row, double value) {
+        terminalVelocity[row] = value;
+    }
+
+    // === SPRITE ===
+
+    /**
+     * Changes an entity's sprite, and its collision box with it.
+     *
+     * @param row    Row of a live entity with {@link Component#SPRITE}
+     * @param sprite Sprite id from {@link EntityStore#spriteId}
+     */
+    public void setSprite(int row, int sprite) {
+        sprites[row] = sprite;
+        if (width != null) {
+            Sprite image = store.getSprite(sprite);
+            width[row] = image.getWidth();
+            height[row] = image.getHeight();
+        }
+    }
+
+    // === COLLIDER ===
+
+    public double getWidth(int row) {
+        return width[row];
+    }
+
+    public double getHeight(int row) {
+        return height[row];
+    }
+
+    public double getLeftEdge(int row) {
+        return x[row];
+    }
+
+    public double getRightEdge(int row) {
+        return x[row] + width[row];
+    }
+
+    public double getTopEdge(int row) {
+        return y[row];
+    }
+
+    public double getBottomEdge(int row) {
+        return y[row] + height[row];
+    }
+
+    // === CLIMBER ===
+
+    public boolean isOnGround(int row) {
+        return onGround[row];
+    }
+
+    /** Sets whether a climber is standing; standing also ends a jump and stops the fall. */
+    public void setOnGround(int row, boolean value) {
+        onGround[row] = value;
+        if (value) {
+            jumping[row] = false;
+            velocityY[row] = 0;
+        }
+    }
+
+    public boolean isJumping(int row) {
+        return jumping[row];
+    }
+
+    public void setJumping(int row, boolean value) {
+        jumping[row] = value;
+    }
+
+    public boolean isClimbing(int row) {
+        return climbing[row];
+    }
+
+    public void setClimbing(int row, boolean value) {
+        climbing[row] = value;
+    }
+
+    /** @return True if a climber is climbing or has only just stopped; such climbers do not land. */
+    public boolean isClimbingBuffered(int row) {
+        return climbing[row] || climbingBuffer[row] > 0;
+    }
+
+    public int getClimbingBuffer(int row) {
+        return climbingBuffer[row];
+    }
+
+    public void setClimbingBuffer(int row, int ticks) {
+        climbingBuffer[row] = ticks;
+    }
+
+    // === COLLECTIBLE ===
+
+    public boolean isCollected(int row) {
+        return collected[row];
+    }
+
+    public void setCollected(int row, boolean value) {
+        collected[row] = value;
+    }
+
+    // === JUMPABLE ===
+
+    public boolean isScoredThisJump(int row) {
+        return scoredThisJump[row];
+    }
+
+    public void markScoredThisJump(int row) {
+        scoredThisJump[row] = true;
+    }
+
+    /** Forgets which entities were scored during the current jump. */
+    public void clearScoredThisJump() {
+        Arrays.fill(scoredThisJump, 0, slotCount, false);
+    }
+
+    // === Snapshots ===
+
+    /**
+     * Writes every row and the free list, so that {@link #readState} can restore the archetype
+     * exactly, including which rows future spawns will reuse.
+     *
+     * @param out Destination of the state
+     * @throws IOException If the destination cannot be written
+     */
+    public void writeState(DataOutput out) throws IOException {
+        out.writeInt(slotCount);
+        out.writeInt(liveCount);
+        out.writeInt(freeCount);
+        for (int i = 0; i < slotCount; i++) {
+            out.writeBoolean(alive[i]);
+            out.writeDouble(x[i]);
+            out.writeDouble(y[i]);
+            out.writeDouble(previousX[i]);
+            out.writeDouble(previousY[i]);
+            if (velocityY != null) {
+                out.writeDouble(velocityY[i]);
+                out.writeDouble(terminalVelocity[i]);
+            }
+            if (sprites != null) out.writeInt(sprites[i]);
+            if (onGround != null) {
+                out.writeBoolean(onGround[i]);
+                out.writeBoolean(jumping[i]);
+                out.writeBoolean(climbing[i]);
+                out.writeInt(climbingBuffer[i]);
+            }
+            if (collected != null) out.writeBoolean(collected[i]);
+            if (scoredThisJump != null) out.writeBoolean(scoredThisJump[i]);
+        }
+        for (int i = 0; i < freeCount; i++) {
+            out.writeInt(freeSlots[i]);
+        }
+    }
+
+    /**
+     * Replaces every row with state written by {@link #writeState} of the same archetype.
+     *
+     * @param in Source of the state
+     * @throws IOException If the source cannot be read
+     */
+    public void readState(DataInput in) throws IOException {
+        clear();
+        int slots = in.readInt();
+        if (x.length < slots) allocate(Math.max(slots, x.length * 2));
+        slotCount = slots;
+        liveCount = in.readInt();
+        freeCount = in.readInt();
+        for (int i = 0; i < slotCount; i++) {
+            alive[i] = in.readBoolean();
+            x[i] = in.readDouble();
+            y[i] = in.readDouble();
+            previousX[i] = in.readDouble();
+            previousY[i] = in.readDouble();
+            if (velocityY != null) {
+                velocityY[i] = in.readDouble();
+                terminalVelocity[i] = in.readDouble();
+            }
+            if (sprites != null) setSprite(i, in.readInt());
+            if (onGround != null) {
+                onGround[i] = in.readBoolean();
+                jumping[i] = in.readBoolean();
+                climbing[i] = in.readBoolean();
+                climbingBuffer[i] = in.readInt();
+            }
+            if (collected != null) collected[i] = in.readBoolean();
+            if (scoredThisJump != null) scoredThisJump[i] = in.readBoolean();
+        }
+        for (int i = 0; i < freeCount; i++) {
+            freeSlots[i] = in.readInt();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package simulation;
+
+/**
+ * A player that controls Mario through the same {@link InputState} the keyboard fills in.
+ * <p>
+ * Bots only read the world; the rules are applied by {@link GameWorld#step} exactly as in a
+ * windowed game. Each game gets its own bot, so bots may keep state between ticks.
+ */
+public interface Bot {
+
+    /**
+     * Chooses the controls for the next tick.
+     *
+     * @param world The game, between ticks
+     * @param input Receives the controls
+     */
+    void decide(GameWorld world, InputState input);
+}
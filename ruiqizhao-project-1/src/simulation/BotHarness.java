@@ -0,0 +1,147 @@
+package simulation;
+
+import util.AssetCache;
+import util.IOUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Plays many complete games with bots, concurrently and without a window, and reports how the
+ * level plays: games per second, how games end, and the spread of scores and time left.
+ * <p>
+ * Every game runs on its own thread with its own {@link GameWorld} and bot, stepping the same
+ * rules the windowed game uses. All games share one compiled level. Scripted bots in game
+ * {@code i} are seeded with {@code i}, so a run with the same arguments reproduces the same
+ * games. The lookahead bot is deterministic and would play every game alike, so it plays one.
+ * <p>
+ * On Java 21 and later each game gets a virtual thread; older runtimes fall back to one
+ * platform thread per core. The games are CPU-bound, so both keep every core busy.
+ */
+public class BotHarness {
+
+    /** Outcome of one game. */
+    private static final class Result {
+        final boolean won;
+        final boolean outOfTime;
+        final int score;
+        final int timeLeft;
+        final int ticks;
+
+        Result(GameWorld world, int maxFrames) {
+            won = world.isGameWon();
+            outOfTime = !won && world.getFrame() >= maxFrames;
+            score = world.getScore();
+            timeLeft = world.getTimeLeft();
+            ticks = world.getFrame();
+        }
+    }
+
+    /**
+     * Entry point for a bot run.
+     *
+     * @param args Optional number of games (default 10,000) and bot, {@code scripted} (default)
+     *             or {@code lookahead}, which always plays a single game
+     */
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        String botName = args.length > 1 ? args[1] : "scripted";
+        if (!botName.equals("scripted") && !botName.equals("lookahead")) {
+            System.err.println("Usage: BotHarness [games] [scripted|lookahead]");
+            System.exit(2);
+        }
+        if (botName.equals("lookahead") && games > 1) {
+            System.out.println("The lookahead bot plays every game alike; playing one game");
+            games = 1;
+        }
+
+        AssetCache.setHeadless(true);
+        LevelConfig level = LevelConfig.load(IOUtils.readPropertiesFile("res/app.properties"));
+
+        ExecutorService executor = newGameExecutor();
+        long start = System.nanoTime();
+        List<Future<Result>> futures = new ArrayList<>(games);
+        for (int i = 0; i < games; i++) {
+            long seed = i;
+            futures.add(executor.submit(() -> play(level, botName, seed)));
+        }
+        Result[] results = new Result[games];
+        for (int i = 0; i < games; i++) {
+            results[i] = futures.get(i).get();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        executor.shutdown();
+
+        report(results, botName, seconds);
+    }
+
+    /** Plays one game to the end. */
+    private static Result play(LevelConfig level, String botName, long seed) {
+        GameWorld world = new GameWorld(level);
+        Bot bot = botName.equals("lookahead") ? new LookaheadBot(level) : new ScriptedBot(new Random(seed));
+        InputState input = new InputState();
+        while (!world.isFinished()) {
+            bot.decide(world, input);
+            world.step(input);
+        }
+        return new Result(world, level.getMaxFrames());
+    }
+
+    /** Returns a virtual-thread-per-task executor where the runtime has one, else a fixed pool. */
+    private static ExecutorService newGameExecutor() {
+        try {
+            // Looked up reflectively so that the game still builds for Java 17
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        }
+    }
+
+    private static void report(Result[] results, String botName, double seconds) {
+        int games = results.length;
+        int won = 0, outOfTime = 0;
+        long ticks = 0;
+        int[] scores = new int[games];
+        int[] winTimes = new int[games];
+        int winCount = 0;
+        for (int i = 0; i < games; i++) {
+            Result r = results[i];
+            if (r.won) {
+                won++;
+                winTimes[winCount++] = r.timeLeft;
+            }
+            if (r.outOfTime) outOfTime++;
+            ticks += r.ticks;
+            scores[i] = r.score;
+        }
+
+        System.out.printf("Played %d games with the %s bot in %.3f s (%.0f games/s, %.0f ticks/s)%n",
+                games, botName, seconds, games / seconds, ticks / seconds);
+        System.out.printf("Won %.1f%%, lost to a barrel or Donkey %.1f%%, out of time %.1f%%%n",
+                100.0 * won / games, 100.0 * (games - won - outOfTime) / games, 100.0 * outOfTime / games);
+        System.out.println("Score            " + distribution(scores, games));
+        System.out.println("Time left (wins) " + distribution(winTimes, winCount));
+    }
+
+    /** Formats the mean and percentiles of the first {@code count} values. */
+    private static String distribution(int[] values, int count) {
+        if (count == 0) return "-";
+        int[] sorted = Arrays.copyOf(values, count);
+        Arrays.sort(sorted);
+        double mean = Arrays.stream(sorted).average().orElse(0);
+        return String.format("mean %.1f  P10 %d  P50 %d  P90 %d  P99 %d  max %d", mean,
+                percentile(sorted, 10), percentile(sorted, 50), percentile(sorted, 90),
+                percentile(sorted, 99), sorted[count - 1]);
+    }
+
+    private static int percentile(int[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+}
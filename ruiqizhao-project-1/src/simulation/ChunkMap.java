@@ -0,0 +1,214 @@
+package simulation;
+
+import entities.Barrel;
+import util.AssetCache;
+import util.Sprite;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Divides a level's world into square chunks, so that only the barrels around Mario have to be
+ * simulated and only the platforms and ladders around him have to be drawn.
+ * <p>
+ * Platform and ladder geometry is not streamed: every platform and ladder stays in the
+ * {@link LevelConfig} and its indexes for as long as the level is loaded, because collisions
+ * query those indexes directly and must not depend on what has been loaded. Static geometry is
+ * a few dozen bytes per object, so even a very long level keeps it resident cheaply; what grows
+ * with a level's size is the barrels, and those are what {@link ChunkStreamer} streams.
+ * <p>
+ * Each barrel belongs to the chunk containing its centre at the start of a game; these lists
+ * are built with the level. The ids of the platforms and ladders overlapping a chunk, which
+ * decide what is drawn, are collected the first time the chunk is prefetched, on a background
+ * thread, and cached for every game on the level. The game thread never waits for them: a
+ * chunk that is not built yet is simply reported as not ready and asked for again later.
+ */
+public class ChunkMap {
+    // One loader for all levels; building a chunk is a few index queries, so one thread keeps up
+    private static final ExecutorService LOADER = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "chunk-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** The static entities overlapping one chunk, as ids into the level's lists in ascending order. */
+    public static final class Chunk {
+        private final int[] platformIds;
+        private final int[] ladderIds;
+
+        private Chunk(int[] platformIds, int[] ladderIds) {
+            this.platformIds = platformIds;
+            this.ladderIds = ladderIds;
+        }
+
+        public int[] getPlatformIds() {
+            return platformIds;
+        }
+
+        public int[] getLadderIds() {
+            return ladderIds;
+        }
+    }
+
+    private final LevelConfig level;
+    private final double chunkSize;
+    private final int columns, rows;
+
+    // Barrels of chunk k are barrelIds[barrelStarts[k]] to barrelIds[barrelStarts[k + 1] - 1], in spawn order
+    private final int[] barrelStarts;
+    private final int[] barrelIds;
+
+    // Contents of each chunk, by key; null until the chunk is first prefetched
+    private final AtomicReferenceArray<CompletableFuture<Chunk>> chunks;
+
+    // Only used on the loader thread
+    private final QueryBuffer loaderQuery = new QueryBuffer();
+
+    /**
+     * Divides a compiled level into chunks.
+     *
+     * @param level     The level; its platforms, indexes and barrels must already be built
+     * @param chunkSize Width and height of a chunk in pixels
+     */
+    ChunkMap(LevelConfig level, double chunkSize) {
+        this.level = level;
+        this.chunkSize = chunkSize;
+        columns = Math.max(1, (int) Math.ceil(level.getWorldWidth() / chunkSize));
+        rows = Math.max(1, (int) Math.ceil(level.getWorldHeight() / chunkSize));
+        chunks = new AtomicReferenceArray<>(getChunkCount());
+
+        // Counting sort of the barrels by chunk, which keeps each chunk's barrels in spawn order
+        Sprite barrel = AssetCache.getSprite(Barrel.IMAGE_PATH);
+        int barrelCount = level.getBarrelCount();
+        int[] barrelChunks = new int[barrelCount];
+        barrelStarts = new int[getChunkCount() + 1];
+        for (int i = 0; i < barrelCount; i++) {
+            barrelChunks[i] = chunkAt(level.getBarrelLeft(i) + barrel.getWidth() / 2,
+                    level.getBarrelTop(i) + barrel.getHeight() / 2);
+            barrelStarts[barrelChunks[i] + 1]++;
+        }
+        for (int k = 0; k < getChunkCount(); k++) {
+            barrelStarts[k + 1] += barrelStarts[k];
+        }
+        int[] next = Arrays.copyOf(barrelStarts, getChunkCount());
+        barrelIds = new int[barrelCount];
+        for (int i = 0; i < barrelCount; i++) {
+            barrelIds[next[barrelChunks[i]]++] = i;
+        }
+    }
+
+    /**
+     * Returns the chunk containing a point. Points outside the world belong to the nearest
+     * chunk on the world's edge.
+     *
+     * @param x World x-coordinate
+     * @param y World y-coordinate
+     * @return The chunk's key
+     */
+    public int chunkAt(double x, double y) {
+        return key(column(x), row(y));
+    }
+
+    /** @return The column of chunks containing an x-coordinate, clamped to the world. */
+    public int column(double x) {
+        return Math.max(0, Math.min(columns - 1, (int) Math.floor(x / chunkSize)));
+    }
+
+    /** @return The row of chunks containing a y-coordinate, clamped to the world. */
+    public int row(double y) {
+        return Math.max(0, Math.min(rows - 1, (int) Math.floor(y / chunkSize)));
+    }
+
+    /** @return The key of the chunk in a column and row, both within the world. */
+    public int key(int column, int row) {
+        return row * columns + column;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getChunkCount() {
+        return columns * rows;
+    }
+
+    /** @return Number of barrels that start a game in a chunk. */
+    public int getBarrelCount(int key) {
+        return barrelStarts[key + 1] - barrelStarts[key];
+    }
+
+    /**
+     * @param key   The chunk's key
+     * @param index Position among the chunk's barrels
+     * @return The barrel's number in the level's spawn order
+     */
+    public int getBarrel(int key, int index) {
+        return barrelIds[barrelStarts[key] + index];
+    }
+
+    /**
+     * Starts building a chunk's contents in the background, if that has not happened yet.
+     * Once a chunk has been requested, this allocates nothing.
+     *
+     * @param key The chunk's key
+     */
+    public void prefetch(int key) {
+        if (chunks.get(key) != null) return;
+        CompletableFuture<Chunk> chunk = new CompletableFuture<>();
+        // Several games may share the level; only the first request builds the chunk
+        if (!chunks.compareAndSet(key, null, chunk)) return;
+        LOADER.execute(() -> {
+            try {
+                chunk.complete(build(key));
+            } catch (RuntimeException e) {
+                chunk.completeExceptionally(e);
+            }
+        });
+    }
+
+    /**
+     * Returns a chunk's contents if they have been built, without waiting. A chunk that has not
+     * been requested yet is prefetched.
+     *
+     * @param key The chunk's key
+     * @return The chunk, or null if it is still being built
+     */
+    public Chunk getIfReady(int key) {
+        prefetch(key);
+        CompletableFuture<Chunk> chunk = chunks.get(key);
+        return chunk.isDone() ? chunk.join() : null;
+    }
+
+    /** Collects the platforms and ladders overlapping a chunk. Runs on the loader thread. */
+    private Chunk build(int key) {
+        double left = (key % columns) * chunkSize;
+        double top = (key / columns) * chunkSize;
+        double right = left + chunkSize;
+        double bottom = top + chunkSize;
+
+        PlatformIndex platformIndex = level.getPlatformIndex();
+        platformIndex.query(loaderQuery, top - platformIndex.getMaxHeight(), bottom, left, right);
+        int[] platformIds = copyResults();
+
+        LadderIndex ladderIndex = level.getLadderIndex();
+        ladderIndex.query(loaderQuery, top - ladderIndex.getMaxHeight(), bottom, left, right);
+        int[] ladderIds = copyResults();
+
+        return new Chunk(platformIds, ladderIds);
+    }
+
+    private int[] copyResults() {
+        int[] ids = new int[loaderQuery.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = loaderQuery.get(i);
+        }
+        return ids;
+    }
+}
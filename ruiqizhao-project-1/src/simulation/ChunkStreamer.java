@@ -0,0 +1,273 @@
+package simulation;
+
+import entities.Ladder;
+import entities.Platform;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Keeps only the chunks around Mario alive in one game.
+ * <p>
+ * The active chunks are the three by three block centred on the chunk containing Mario at the
+ * end of a tick. When Mario enters another chunk, barrels left outside the new block are frozen
+ * in the chunk they are in, and the chunks entering the block release their frozen barrels,
+ * plus their starting barrels the first time they become active. Chunks up to two away are
+ * prefetched, so their contents are usually built before Mario reaches them.
+ * <p>
+ * A frozen barrel keeps its position and falling speed, so it carries on exactly as it would
+ * have had it stayed active. Activation depends only on where Mario is after each tick, never
+ * on timing, so a replay streams exactly the same barrels in and out as the game it was
+ * recorded from. Only the platforms and ladders listed for drawing depend on the background
+ * loader; a chunk still being built is added to them on a later tick.
+ * <p>
+ * Moving the active block allocates nothing once the chunks' buffers have grown.
+ */
+class ChunkStreamer {
+    private static final int ACTIVE_RADIUS = 1;
+    private static final int PREFETCH_RADIUS = 2;
+
+    // Ticks between sweeps for barrels that fell out of the active block without Mario moving
+    private static final int EVICT_INTERVAL = 30;
+
+    // Doubles stored per frozen barrel
+    private static final int DORMANT_STRIDE = 3;
+
+    private final ChunkMap map;
+    private final LevelConfig level;
+    private final Archetype barrels;
+
+    // Chunk containing Mario when the active block was last chosen; -1 before the first tick
+    private int centerColumn = -1, centerRow = -1;
+    private int ticksSinceEvict;
+
+    // Chunks whose starting barrels have been spawned
+    private final BitSet started = new BitSet();
+
+    // Frozen barrels of each chunk as (left, top, velocityY) triples
+    private final double[][] dormant;
+    private final int[] dormantCounts;
+
+    // Static entities of the active chunks, rebuilt whenever the block moves
+    private final List<Platform> activePlatforms = new ArrayList<>();
+    private final List<Ladder> activeLadders = new ArrayList<>();
+    private final BitSet platformIds = new BitSet();
+    private final BitSet ladderIds = new BitSet();
+
+    // Set while an active chunk was not built yet when the lists were last rebuilt
+    private boolean activeListsIncomplete;
+
+    /**
+     * Creates a streamer with no active chunks.
+     *
+     * @param level   The level being played; it must have a chunk map
+     * @param barrels The game's barrels
+     */
+    ChunkStreamer(LevelConfig level, Archetype barrels) {
+        this.map = level.getChunkMap();
+        this.level = level;
+        this.barrels = barrels;
+        dormant = new double[map.getChunkCount()][];
+        dormantCounts = new int[map.getChunkCount()];
+    }
+
+    /** Deactivates every chunk and forgets every frozen barrel, as at the start of a game. */
+    void reset() {
+        centerColumn = -1;
+        centerRow = -1;
+        ticksSinceEvict = 0;
+        started.clear();
+        Arrays.fill(dormantCounts, 0);
+        activePlatforms.clear();
+        activeLadders.clear();
+        activeListsIncomplete = false;
+    }
+
+    /**
+     * Moves the active block to follow Mario and freezes barrels that have left it.
+     *
+     * @param marioX Mario's centre x-coordinate
+     * @param marioY Mario's centre y-coordinate
+     */
+    void update(double marioX, double marioY) {
+        int column = map.column(marioX);
+        int row = map.row(marioY);
+        if (column == centerColumn && row == centerRow) {
+            if (activeListsIncomplete) rebuildActiveLists();
+            if (++ticksSinceEvict < EVICT_INTERVAL) return;
+            ticksSinceEvict = 0;
+            evictOutside();
+            return;
+        }
+
+        centerColumn = column;
+        centerRow = row;
+        ticksSinceEvict = 0;
+        for (int r = firstRow(PREFETCH_RADIUS); r <= lastRow(PREFETCH_RADIUS); r++) {
+            for (int c = firstColumn(PREFETCH_RADIUS); c <= lastColumn(PREFETCH_RADIUS); c++) {
+                map.prefetch(map.key(c, r));
+            }
+        }
+        evictOutside();
+        for (int r = firstRow(ACTIVE_RADIUS); r <= lastRow(ACTIVE_RADIUS); r++) {
+            for (int c = firstColumn(ACTIVE_RADIUS); c <= lastColumn(ACTIVE_RADIUS); c++) {
+                activate(map.key(c, r));
+            }
+        }
+        rebuildActiveLists();
+    }
+
+    /** Freezes every live barrel outside the active block in the chunk it is in. */
+    private void evictOutside() {
+        for (int slot = 0; slot < barrels.getSlotCount(); slot++) {
+            if (!barrels.isAlive(slot)) continue;
+            double left = barrels.getLeftEdge(slot), top = barrels.getTopEdge(slot);
+            int column = map.column((left + barrels.getRightEdge(slot)) / 2);
+            int row = map.row((top + barrels.getBottomEdge(slot)) / 2);
+            if (isActive(column, row)) continue;
+            freeze(map.key(column, row), left, top, barrels.getVelocityY(slot));
+            barrels.destroy(slot);
+        }
+    }
+
+    /** Spawns a chunk's starting barrels if it has never been active, then its frozen barrels. */
+    private void activate(int key) {
+        if (!started.get(key)) {
+            started.set(key);
+            for (int i = 0; i < map.getBarrelCount(key); i++) {
+                int barrel = map.getBarrel(key, i);
+                barrels.spawn(level.getBarrelLeft(barrel), level.getBarrelTop(barrel));
+            }
+        }
+        double[] frozen = dormant[key];
+        for (int i = 0; i < dormantCounts[key]; i++) {
+            int slot = barrels.spawn(frozen[DORMANT_STRIDE * i], frozen[DORMANT_STRIDE * i + 1]);
+            barrels.setVelocityY(slot, frozen[DORMANT_STRIDE * i + 2]);
+        }
+        dormantCounts[key] = 0;
+    }
+
+    private void freeze(int key, double left, double top, double velocityY) {
+        int count = dormantCounts[key];
+        if (dormant[key] == null) {
+            dormant[key] = new double[4 * DORMANT_STRIDE];
+        } else if (DORMANT_STRIDE * count == dormant[key].length) {
+            dormant[key] = Arrays.copyOf(dormant[key], 2 * DORMANT_STRIDE * count);
+        }
+        dormant[key][DORMANT_STRIDE * count] = left;
+        dormant[key][DORMANT_STRIDE * count + 1] = top;
+        dormant[key][DORMANT_STRIDE * count + 2] = velocityY;
+        dormantCounts[key] = count + 1;
+    }
+
+    private boolean isActive(int column, int row) {
+        return Math.abs(column - centerColumn) <= ACTIVE_RADIUS && Math.abs(row - centerRow) <= ACTIVE_RADIUS;
+    }
+
+    // Bounds of the chunks within a radius of the centre chunk, clamped to the world
+
+    private int firstRow(int radius) {
+        return Math.max(0, centerRow - radius);
+    }
+
+    private int lastRow(int radius) {
+        return Math.min(map.getRows() - 1, centerRow + radius);
+    }
+
+    private int firstColumn(int radius) {
+        return Math.max(0, centerColumn - radius);
+    }
+
+    private int lastColumn(int radius) {
+        return Math.min(map.getColumns() - 1, centerColumn + radius);
+    }
+
+    /**
+     * Collects the platforms and ladders of the active chunks once each, in level order.
+     * Chunks that are still being built are left out until a later call.
+     */
+    private void rebuildActiveLists() {
+        platformIds.clear();
+        ladderIds.clear();
+        activeListsIncomplete = false;
+        for (int r = firstRow(ACTIVE_RADIUS); r <= lastRow(ACTIVE_RADIUS); r++) {
+            for (int c = firstColumn(ACTIVE_RADIUS); c <= lastColumn(ACTIVE_RADIUS); c++) {
+                ChunkMap.Chunk chunk = map.getIfReady(map.key(c, r));
+                if (chunk == null) {
+                    activeListsIncomplete = true;
+                    continue;
+                }
+                for (int id : chunk.getPlatformIds()) platformIds.set(id);
+                for (int id : chunk.getLadderIds()) ladderIds.set(id);
+            }
+        }
+
+        activePlatforms.clear();
+        activeLadders.clear();
+        for (int id = platformIds.nextSetBit(0); id >= 0; id = platformIds.nextSetBit(id + 1)) {
+            activePlatforms.add(level.getPlatforms().get(id));
+        }
+        for (int id = ladderIds.nextSetBit(0); id >= 0; id = ladderIds.nextSetBit(id + 1)) {
+            activeLadders.add(level.getLadders().get(id));
+        }
+    }
+
+    /** @return Platforms overlapping the active chunks. */
+    List<Platform> getActivePlatforms() {
+        return activePlatforms;
+    }
+
+    /** @return Ladders overlapping the active chunks. */
+    List<Ladder> getActiveLadders() {
+        return activeLadders;
+    }
+
+    /**
+     * Writes the active block, which chunks have started and every frozen barrel with its speed.
+     *
+     * @param out Destination of the state
+     * @throws IOException If the destination cannot be written
+     */
+    void writeState(DataOutput out) throws IOException {
+        out.writeInt(centerColumn);
+        out.writeInt(centerRow);
+        out.writeInt(ticksSinceEvict);
+        long[] startedWords = started.toLongArray();
+        out.writeInt(startedWords.length);
+        for (long word : startedWords) out.writeLong(word);
+        for (int key = 0; key < dormantCounts.length; key++) {
+            out.writeInt(dormantCounts[key]);
+            for (int i = 0; i < DORMANT_STRIDE * dormantCounts[key]; i++) out.writeDouble(dormant[key][i]);
+        }
+    }
+
+    /**
+     * Replaces the streaming state with state written by {@link #writeState}.
+     *
+     * @param in Source of the state
+     * @throws IOException If the source cannot be read
+     */
+    void readState(DataInput in) throws IOException {
+        centerColumn = in.readInt();
+        centerRow = in.readInt();
+        ticksSinceEvict = in.readInt();
+        long[] startedWords = new long[in.readInt()];
+        for (int i = 0; i < startedWords.length; i++) startedWords[i] = in.readLong();
+        started.clear();
+        started.or(BitSet.valueOf(startedWords));
+        for (int key = 0; key < dormantCounts.length; key++) {
+            int count = in.readInt();
+            dormantCounts[key] = 0;
+            for (int i = 0; i < count; i++) freeze(key, in.readDouble(), in.readDouble(), in.readDouble());
+        }
+        activePlatforms.clear();
+        activeLadders.clear();
+        activeListsIncomplete = false;
+        if (centerColumn >= 0) rebuildActiveLists();
+    }
+}
@@ -0,0 +1,41 @@
+package simulation;
+
+/**
+ * The kinds of state an entity can have. An entity's set of components decides which
+ * {@link Archetype} stores it and which systems of {@link GameWorld} process it.
+ * <p>
+ * Sets of components are passed around as bit masks, built with {@link #mask}.
+ */
+public enum Component {
+    /** Top-left position, and the position at the start of the tick for interpolated drawing. */
+    POSITION,
+    /** Vertical velocity and the fall speed it is capped at; pulled down by gravity. */
+    VELOCITY,
+    /** The image drawn for the entity. */
+    SPRITE,
+    /** A box the size of the sprite that takes part in collisions; with a velocity, it lands on platforms. */
+    COLLIDER,
+    /** Standing, jumping and ladder-climbing state; gravity skips a climber that is standing or climbing. */
+    CLIMBER,
+    /** Whether the entity has been picked up; collected entities are no longer drawn. */
+    COLLECTIBLE,
+    /** Whether Mario has been scored for jumping the entity during his current jump. */
+    JUMPABLE;
+
+    /** @return This component's bit in a mask. */
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * @param components Some components
+     * @return The mask holding exactly those components
+     */
+    public static int mask(Component... components) {
+        int mask = 0;
+        for (Component component : components) {
+            mask |= component.bit();
+        }
+        return mask;
+    }
+}
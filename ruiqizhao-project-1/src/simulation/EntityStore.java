@@ -0,0 +1,144 @@
+package simulation;
+
+import util.AssetCache;
+import util.Sprite;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Every moving entity of one game, grouped into {@link Archetype}s by their set of components.
+ * <p>
+ * Systems ask the store for the archetypes that have the components they need and walk those
+ * archetypes' arrays, so an entity takes part in a system because of what it has rather than
+ * what class it is. Archetypes are created in a fixed order while the world is built, which
+ * keeps iteration order, and with it every game, deterministic.
+ * <p>
+ * Sprites are stored as small integer ids into a table shared by all archetypes, so that
+ * sprite columns stay primitive and snapshots can record them.
+ */
+public class EntityStore {
+    private final List<Archetype> archetypes = new ArrayList<>();
+    private final List<Sprite> sprites = new ArrayList<>();
+
+    /**
+     * Returns the archetype for an exact set of components, creating it if it does not exist.
+     *
+     * @param components   Mask of components from {@link Component#mask}; must include {@link Component#POSITION}
+     * @param defaultImage Image path of the sprite new entities of a new archetype start with
+     * @return The archetype
+     */
+    public Archetype getArchetype(int components, String defaultImage) {
+        return getArchetype(components, defaultImage, 1);
+    }
+
+    /**
+     * Returns the archetype for an exact set of components, creating it if it does not exist.
+     *
+     * @param components   Mask of components from {@link Component#mask}; must include {@link Component#POSITION}
+     * @param defaultImage Image path of the sprite new entities of a new archetype start with
+     * @param capacity     Number of entities a new archetype reserves room for
+     * @return The archetype
+     */
+    public Archetype getArchetype(int components, String defaultImage, int capacity) {
+        if ((components & Component.POSITION.bit()) == 0) {
+            throw new IllegalArgumentException("Every archetype needs a position");
+        }
+        for (Archetype archetype : archetypes) {
+            if (archetype.getComponents() == components) return archetype;
+        }
+        Archetype archetype = new Archetype(this, components, spriteId(defaultImage), capacity);
+        archetypes.add(archetype);
+        return archetype;
+    }
+
+    /** @return Number of archetypes, in creation order. */
+    public int getArchetypeCount() {
+        return archetypes.size();
+    }
+
+    public Archetype getArchetype(int index) {
+        return archetypes.get(index);
+    }
+
+    /**
+     * Returns the id of an image's sprite, adding it to the sprite table on first use.
+     *
+     * @param imagePath Path to the image
+     * @return The sprite id
+     */
+    public int spriteId(String imagePath) {
+        Sprite sprite = AssetCache.getSprite(imagePath);
+        int id = sprites.indexOf(sprite);
+        if (id >= 0) return id;
+        sprites.add(sprite);
+        return sprites.size() - 1;
+    }
+
+    /** @return The sprite with an id from {@link #spriteId}. */
+    public Sprite getSprite(int id) {
+        return sprites.get(id);
+    }
+
+    // === Systems over every matching archetype ===
+
+    /** Records every entity's position as the start of a new tick. */
+    public void savePreviousPositions() {
+        // Indexed loops here and below: they run every tick, and an iterator allocates
+        // whenever the JIT has not removed it
+        for (int i = 0; i < archetypes.size(); i++) {
+            archetypes.get(i).savePreviousPositions();
+        }
+    }
+
+    /**
+     * Applies gravity to every entity with a velocity in the archetypes that have all of some
+     * components and none of others. Climbers that are standing or climbing are skipped.
+     *
+     * @param required Mask of components an archetype must have
+     * @param excluded Mask of components an archetype must not have
+     */
+    public void applyGravity(int required, int excluded) {
+        required |= Component.VELOCITY.bit();
+        for (int i = 0; i < archetypes.size(); i++) {
+            Archetype archetype = archetypes.get(i);
+            if (archetype.hasAll(required) && (archetype.getComponents() & excluded) == 0) {
+                archetype.applyGravity();
+            }
+        }
+    }
+
+    // === Snapshots ===
+
+    /**
+     * Writes every archetype in creation order.
+     *
+     * @param out Destination of the state
+     * @throws IOException If the destination cannot be written
+     */
+    public void writeState(DataOutput out) throws IOException {
+        out.writeInt(archetypes.size());
+        for (Archetype archetype : archetypes) {
+            out.writeInt(archetype.getComponents());
+            archetype.writeState(out);
+        }
+    }
+
+    /**
+     * Restores state written by {@link #writeState} of a store with the same archetypes,
+     * that is, one built for the same level.
+     *
+     * @param in Source of the state
+     * @throws IOException If the source cannot be read or was written by a different store
+     */
+    public void readState(DataInput in) throws IOException {
+        if (in.readInt() != archetypes.size()) throw new IOException("Snapshot has different archetypes");
+        for (Archetype archetype : archetypes) {
+            if (in.readInt() != archetype.getComponents()) throw new IOException("Snapshot has different archetypes");
+            archetype.readState(in);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package simulation;
+
+/**
+ * Things that happen during a game that other parts of the program may want to hear about,
+ * published by {@link GameWorld} through a {@link GameEventBus}.
+ */
+public enum GameEvent {
+    /** Mario jumped over a barrel and scored for it. */
+    BARREL_JUMPED,
+    /** Mario destroyed a barrel with the hammer. */
+    BARREL_SMASHED,
+    /** Mario picked up the hammer. */
+    HAMMER_COLLECTED,
+    /** Mario touched a barrel or Donkey without the hammer; the game is lost. */
+    DEATH,
+    /** Mario reached Donkey holding the hammer; the game is won. */
+    WIN,
+    /** The game ran out of time; the game is lost. */
+    TIMEOUT;
+
+    // Shared copy of values(), which allocates a new array on every call
+    private static final GameEvent[] VALUES = values();
+
+    /** @return True if the event ends the game. */
+    public boolean endsGame() {
+        return this == DEATH || this == WIN || this == TIMEOUT;
+    }
+
+    /** Looks an event up by its ordinal without allocating. */
+    static GameEvent of(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
@@ -0,0 +1,146 @@
+package simulation;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A fixed-size ring buffer through which the game thread hands {@link GameEvent}s to consumers
+ * on other threads, without locks and without allocating.
+ * <p>
+ * There is exactly one producer, the thread stepping the game. Each event is written into
+ * preallocated arrays and then made visible by advancing the published sequence with release
+ * semantics. Every consumer has its own {@link Subscription} with its own read sequence, so
+ * consumers never wait for each other; the producer only reads their sequences, and only when
+ * the buffer may be full.
+ * <p>
+ * The frame thread must never block on a consumer, so when the slowest consumer is a whole
+ * buffer behind, the new event is dropped and counted instead. Consumers that cannot afford to
+ * miss events should drain more often or use a larger buffer.
+ */
+public class GameEventBus {
+    /** Receives events drained from a subscription. */
+    public interface Listener {
+        /**
+         * Handles one event.
+         *
+         * @param event What happened
+         * @param frame The tick it happened in, counted from the start of its game
+         * @param score Mario's score right after the event
+         */
+        void onEvent(GameEvent event, int frame, int score);
+    }
+
+    /** One consumer's position in the buffer. Each subscription is drained by one thread. */
+    public final class Subscription {
+        // Sequence of the next event to read
+        private final AtomicLong next;
+
+        private Subscription(long start) {
+            next = new AtomicLong(start);
+        }
+
+        /**
+         * Hands every event published since the last drain to a listener, oldest first.
+         *
+         * @param listener Receives the events
+         * @return Number of events handled
+         */
+        public int drain(Listener listener) {
+            long from = next.get();
+            long to = published.getAcquire();
+            for (long sequence = from; sequence < to; sequence++) {
+                int slot = (int) sequence & mask;
+                listener.onEvent(GameEvent.of(events[slot]), frames[slot], scores[slot]);
+            }
+            // Frees the slots for the producer only after they have been read
+            next.setRelease(to);
+            return (int) (to - from);
+        }
+
+        /** Stops receiving events, so that this consumer no longer holds the producer back. */
+        public void cancel() {
+            unsubscribe(this);
+        }
+    }
+
+    private final int mask;
+    private final int[] events;
+    private final int[] frames;
+    private final int[] scores;
+
+    // Sequence of the next event to publish; written only by the producer
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile Subscription[] subscriptions = new Subscription[0];
+
+    // Producer only: lowest read sequence seen at the last scan of the subscriptions
+    private long gate;
+
+    /**
+     * Creates an empty bus.
+     *
+     * @param capacity Most events that can wait for the slowest consumer; rounded up to a power of two
+     */
+    public GameEventBus(int capacity) {
+        int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        mask = size - 1;
+        events = new int[size];
+        frames = new int[size];
+        scores = new int[size];
+    }
+
+    /**
+     * Publishes an event to every subscription. Must only be called from the producer thread.
+     *
+     * @param event What happened
+     * @param frame The tick it happened in
+     * @param score Mario's score right after the event
+     */
+    public void publish(GameEvent event, int frame, int score) {
+        long sequence = published.get();
+        if (sequence - gate > mask) {
+            gate = slowestConsumer(sequence);
+            if (sequence - gate > mask) {
+                dropped.setRelease(dropped.get() + 1);
+                return;
+            }
+        }
+        int slot = (int) sequence & mask;
+        events[slot] = event.ordinal();
+        frames[slot] = frame;
+        scores[slot] = score;
+        published.setRelease(sequence + 1);
+    }
+
+    /** Returns the lowest read sequence of any subscription, or the given sequence if there are none. */
+    private long slowestConsumer(long sequence) {
+        long slowest = sequence;
+        for (Subscription subscription : subscriptions) {
+            slowest = Math.min(slowest, subscription.next.getAcquire());
+        }
+        return slowest;
+    }
+
+    /**
+     * Adds a consumer, which receives every event published from now on.
+     *
+     * @return The consumer's subscription
+     */
+    public synchronized Subscription subscribe() {
+        Subscription subscription = new Subscription(published.getAcquire());
+        Subscription[] grown = Arrays.copyOf(subscriptions, subscriptions.length + 1);
+        grown[grown.length - 1] = subscription;
+        subscriptions = grown;
+        return subscription;
+    }
+
+    private synchronized void unsubscribe(Subscription subscription) {
+        subscriptions = Arrays.stream(subscriptions).filter(s -> s != subscription).toArray(Subscription[]::new);
+    }
+
+    /** @return Number of events dropped because a consumer was a whole buffer behind. */
+    public long getDroppedCount() {
+        return dropped.getAcquire();
+    }
+}
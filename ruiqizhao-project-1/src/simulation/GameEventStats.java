@@ -0,0 +1,105 @@
+package simulation;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Session analytics built from the {@link GameEventBus} on a thread of its own, so that
+ * counting what happens in each game adds nothing to the frame.
+ * <p>
+ * The drain thread wakes a few times a second, tallies every event since its last visit and
+ * keeps the final score of every game. {@link #stop} drains whatever is left, after which
+ * {@link #writeCsv} writes the totals.
+ */
+public class GameEventStats implements GameEventBus.Listener {
+    private static final long DRAIN_INTERVAL_MILLIS = 100;
+
+    private final GameEventBus bus;
+    private final GameEventBus.Subscription subscription;
+    private final Thread drainer;
+
+    // Written only by the thread draining the subscription
+    private final long[] counts = new long[GameEvent.values().length];
+    private long games;
+    private long finalScoreTotal;
+
+    private GameEventStats(GameEventBus bus) {
+        this.bus = bus;
+        subscription = bus.subscribe();
+        drainer = new Thread(this::drainLoop, "event-stats");
+        drainer.setDaemon(true);
+    }
+
+    /**
+     * Subscribes to a bus and starts draining it.
+     *
+     * @param bus The session's event bus
+     * @return The running consumer
+     */
+    public static GameEventStats start(GameEventBus bus) {
+        GameEventStats stats = new GameEventStats(bus);
+        stats.drainer.start();
+        return stats;
+    }
+
+    private void drainLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            subscription.drain(this);
+            try {
+                Thread.sleep(DRAIN_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void onEvent(GameEvent event, int frame, int score) {
+        counts[event.ordinal()]++;
+        if (event.endsGame()) {
+            games++;
+            finalScoreTotal += score;
+        }
+    }
+
+    /**
+     * Stops the drain thread, waiting at most the given time, then takes in the remaining events.
+     * The subscription is cancelled either way, so a stuck drain thread never holds the bus back.
+     *
+     * @param timeoutMillis Longest time to wait for the drain thread
+     * @return True if the drain thread stopped in time; if not, the totals are incomplete and
+     *         may still be changing, so they must not be written
+     * @throws InterruptedException If interrupted while waiting
+     */
+    public boolean stop(long timeoutMillis) throws InterruptedException {
+        drainer.interrupt();
+        drainer.join(timeoutMillis);
+        boolean stopped = !drainer.isAlive();
+        if (stopped) subscription.drain(this);
+        subscription.cancel();
+        return stopped;
+    }
+
+    /**
+     * Writes one line per event type with its count, then the number of games, their mean
+     * final score and the number of events the bus dropped. Call only after {@link #stop}
+     * has returned true.
+     *
+     * @param file Destination file, replaced if it exists
+     * @throws IOException If the file cannot be written
+     */
+    public void writeCsv(Path file) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+            out.println("metric,value");
+            for (GameEvent event : GameEvent.values()) {
+                out.printf("%s,%d%n", event.name().toLowerCase(), counts[event.ordinal()]);
+            }
+            out.printf("games,%d%n", games);
+            out.printf("mean_final_score,%.1f%n", games == 0 ? 0.0 : (double) finalScoreTotal / games);
+            out.printf("dropped,%d%n", bus.getDroppedCount());
+        }
+    }
+}
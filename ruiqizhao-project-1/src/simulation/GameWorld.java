@@ -0,0 +1,666 @@
+/**
+ * The GameWorld class holds the complete state of one game of Shadow Donkey Kong
+ * and applies the gameplay rules one tick at a time.
+ * <p>
+ * It never draws anything and reads input only through {@link InputState}, so it can be
+ * stepped without a window: {@code PlayingPage} renders it, while headless runs
+ * (load tests, regression runs, balancing sweeps) step it as fast as the CPU allows.
+ */
+package simulation;
+
+import entities.*;
+import util.FrameProfiler;
+import util.FrameProfiler.Phase;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+public class GameWorld {
+    /** Number of simulation ticks in one second of game time */
+    public static final int TICKS_PER_SECOND = 60;
+
+    // Constants for gameplay behavior
+    private static final int CLIMB_SPEED = 2;
+    private static final int PLATFORM_SNAP_BUFFER = 5;
+    private static final int SCORE_JUMP_OVER = 30;
+    private static final int SCORE_BARREL_DESTROYED = 100;
+
+    // Barrel count above which barrel physics is split across the fork/join pool
+    private static final int PARALLEL_BARREL_THRESHOLD = 4096;
+
+    // Components of the entities landed by landBodies, built once since mask() takes an array
+    private static final int LANDING_BODY = Component.mask(Component.VELOCITY, Component.COLLIDER);
+
+    // Sprite paths for the level entities
+    public static final String DONKEY_IMAGE = "res/donkey_kong.png";
+    public static final String HAMMER_IMAGE = "res/hammer.png";
+    public static final List<String> TERRAIN_IMAGES = List.of(
+            "res/platform.png", "res/ladder.png", "res/barrel.png");
+
+    // Every moving entity's state, grouped by components
+    private final EntityStore store = new EntityStore();
+
+    // Core game entities, as handles into the store
+    private final Mario mario;
+    private final Donkey donkey;
+    private final Hammer hammer;
+    private final List<Platform> platforms;
+    private final List<Ladder> ladders;
+    private final Archetype barrels;
+    private final LevelConfig level;
+    private final int maxFrames;
+
+    // Barrels falling past the bottom of the world are despawned
+    private final double worldHeight;
+    // Broadphase structures; ids are platform and ladder list indices
+    // Broadphase structures; ids are platform list indices and barrel slots
+    private final PlatformIndex platformIndex;
+    private final LadderIndex ladderIndex;
+    private final QueryBuffer platformQuery = new QueryBuffer();
+    private final QueryBuffer ladderQuery = new QueryBuffer();
+
+    // Streams barrels in and out around Mario, or null if the whole level is always simulated
+    private final ChunkStreamer streamer;
+
+    // Created on first use, only for levels with many barrels
+    private ParallelBarrelUpdater parallelUpdater;
+
+    // Receives phase timings when set; headless runs leave it null and skip the clock reads
+    private FrameProfiler profiler;
+
+    // Receives the game's events when set; rollouts and benchmarks leave it null
+    private GameEventBus events;
+
+    // Game state trackers
+    private int score = 0;
+    private int frame = 0;
+    private boolean gameOver = false;
+    private boolean gameWon = false;
+    private boolean wasOnGroundLastFrame = true;
+
+    /**
+     * Builds a new game from the level described in the game properties.
+     * Callers starting many games on one level should compile a {@link LevelConfig} once instead.
+     *
+     * @param gameProps Game configuration properties
+     */
+    public GameWorld(Properties gameProps) {
+        this(LevelConfig.compile(gameProps));
+    }
+
+    /**
+     * Builds a new game on a compiled level. Platforms, ladders and their indexes are shared
+     * with the level; only the moving entities are created. Archetypes are created in the
+     * same order for every game, so snapshots of one game can be restored into another.
+     *
+     * @param level The level to play
+     */
+    public GameWorld(LevelConfig level) {
+        this.level = level;
+        mario = new Mario(store, Mario.SPRITE_PATHS.get(0), level.getMarioStartX(), level.getMarioStartY(),
+                level.getWorldWidth());
+        donkey = new Donkey(store, DONKEY_IMAGE, level.getDonkeyStartX(), level.getDonkeyStartY());
+        hammer = new Hammer(store, HAMMER_IMAGE, level.getHammerStartX(), level.getHammerStartY());
+        barrels = store.getArchetype(Barrel.COMPONENTS, Barrel.IMAGE_PATH, level.getBarrelCount());
+
+        platforms = level.getPlatforms();
+        ladders = level.getLadders();
+        platformIndex = level.getPlatformIndex();
+        ladderIndex = level.getLadderIndex();
+
+        streamer = level.getChunkMap() != null ? new ChunkStreamer(level, barrels) : null;
+        spawnBarrels();
+
+        maxFrames = level.getMaxFrames();
+        worldHeight = level.getWorldHeight();
+    }
+
+    /**
+     * Restarts the game on the same level. Every entity and buffer is reused, so the world ends
+     * up exactly as a newly built one without allocating anything once its buffers have grown.
+     */
+    public void reset() {
+        mario.reset(level.getMarioStartX(), level.getMarioStartY());
+        donkey.reset(level.getDonkeyStartX(), level.getDonkeyStartY());
+        hammer.reset(level.getHammerStartX(), level.getHammerStartY());
+
+        barrels.clear();
+        if (streamer != null) streamer.reset();
+        spawnBarrels();
+
+        score = 0;
+        frame = 0;
+        gameOver = false;
+        gameWon = false;
+        wasOnGroundLastFrame = true;
+    }
+
+    /** Spawns the barrels a game starts with: all of them, or those around Mario when streaming. */
+    private void spawnBarrels() {
+        if (streamer != null) {
+            streamer.update(mario.getCenterX(), mario.getCenterY());
+            return;
+        }
+        for (int i = 0; i < level.getBarrelCount(); i++) {
+            barrels.spawn(level.getBarrelLeft(i), level.getBarrelTop(i));
+        }
+    }
+
+    /**
+     * Advances the game by one tick. Controls the order of input, physics,
+     * scoring and win/loss checks. Does nothing once the game has finished.
+     *
+     * @param input Control snapshot for this tick
+     */
+    public void step(InputState input) {
+        store.savePreviousPositions();
+
+        mario.tickClimbingBuffer();
+
+        if (isFinished()) return;
+
+        frame++;
+        long time = profiler != null ? profiler.now() : 0;
+
+        mario.update(input);
+        donkey.update(input);
+        time = endPhase(Phase.MOVEMENT, time);
+        // Barrels fall later, in the barrel phase
+        store.applyGravity(0, Component.JUMPABLE.bit());
+        time = endPhase(Phase.GRAVITY, time);
+
+        checkBarrelJumpScore();
+        time = endPhase(Phase.JUMP_SCORE, time);
+        updateBarrels();
+        time = endPhase(Phase.BARRELS, time);
+        handleHammerPickup();
+        time = endPhase(Phase.HAMMER, time);
+        checkWinOrLoseConditions();
+        time = endPhase(Phase.WIN_LOSE, time);
+
+        landBodies();
+        landBarrels();
+        barrels.destroyBelow(worldHeight);
+        time = endPhase(Phase.PLATFORMS, time);
+
+        handleLadderClimbing(input);
+        time = endPhase(Phase.LADDERS, time);
+
+        if (streamer != null) streamer.update(mario.getCenterX(), mario.getCenterY());
+        endPhase(Phase.STREAMING, time);
+    }
+
+    /**
+     * Records what the profiler measures, usually time, since a phase started, if profiling.
+     *
+     * @return The current reading, which is where the next phase starts
+     */
+    private long endPhase(Phase phase, long start) {
+        if (profiler == null) return 0;
+        long now = profiler.now();
+        profiler.record(phase, now - start);
+        return now;
+    }
+
+    /**
+     * Starts or stops recording how long each phase of {@link #step} takes.
+     *
+     * @param profiler Receives the timings, or null to stop profiling
+     */
+    public void setProfiler(FrameProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    /**
+     * Starts or stops publishing scoring and win/loss events. Publishing allocates nothing, so
+     * consumers on other threads cost the game thread only a few array writes per event.
+     *
+     * @param events Bus to publish to, or null to stop publishing
+     */
+    public void setEventBus(GameEventBus events) {
+        this.events = events;
+    }
+
+    private void publish(GameEvent event) {
+        if (events != null) events.publish(event, frame, score);
+    }
+
+    /** Ends the game, publishing the cause unless the game has already ended this tick. */
+    private void endGame(GameEvent cause) {
+        if (!isFinished()) publish(cause);
+        if (cause == GameEvent.WIN) {
+            gameWon = true;
+        } else {
+            gameOver = true;
+        }
+    }
+
+    // === State accessors ===
+
+    /** @return True once the game has been won or lost. */
+    public boolean isFinished() {
+        return gameOver || gameWon;
+    }
+
+    /** @return True if the game has been won. */
+    public boolean isGameWon() {
+        return gameWon;
+    }
+
+    /** @return True if the game has been lost. */
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /** @return The current score. */
+    public int getScore() {
+        return score;
+    }
+
+    /** @return Number of ticks played so far. */
+    public int getFrame() {
+        return frame;
+    }
+
+    /** @return Remaining time in whole seconds. */
+    public int getTimeLeft() {
+        return (maxFrames - frame) / TICKS_PER_SECOND;
+    }
+
+    public Mario getMario() {
+        return mario;
+    }
+
+    public Donkey getDonkey() {
+        return donkey;
+    }
+
+    public Hammer getHammer() {
+        return hammer;
+    }
+
+    public List<Platform> getPlatforms() {
+        return platforms;
+    }
+
+    public List<Ladder> getLadders() {
+        return ladders;
+    }
+
+    /** @return The platforms that can be near Mario: those of the active chunks when streaming, otherwise all. */
+    public List<Platform> getActivePlatforms() {
+        return streamer != null ? streamer.getActivePlatforms() : platforms;
+    }
+
+    /** @return The ladders that can be near Mario: those of the active chunks when streaming, otherwise all. */
+    public List<Ladder> getActiveLadders() {
+        return streamer != null ? streamer.getActiveLadders() : ladders;
+    }
+
+    /** @return The archetype holding every live barrel. */
+    public Archetype getBarrels() {
+        return barrels;
+    }
+
+    /** @return Index over {@link #getPlatforms()}, for code that needs to find platforms near a point. */
+    public PlatformIndex getPlatformIndex() {
+        return platformIndex;
+    }
+
+    /** @return Index over {@link #getLadders()}, for code that needs to find ladders near a point. */
+    public LadderIndex getLadderIndex() {
+        return ladderIndex;
+    }
+
+    // === Snapshots ===
+
+    /**
+     * Writes everything that changes during play. Platforms and ladders are fixed by the level,
+     * so a snapshot can only be restored into a world built from the same level.
+     *
+     * @param out Destination of the snapshot
+     * @throws IOException If the destination cannot be written
+     */
+    public void writeState(DataOutput out) throws IOException {
+        store.writeState(out);
+        mario.writeState(out);
+        out.writeInt(score);
+        out.writeInt(frame);
+        out.writeBoolean(gameOver);
+        out.writeBoolean(gameWon);
+        out.writeBoolean(wasOnGroundLastFrame);
+        if (streamer != null) streamer.writeState(out);
+    }
+
+    /**
+     * Puts the world back into a state written by {@link #writeState}.
+     *
+     * @param in Source of the snapshot
+     * @throws IOException If the source cannot be read
+     */
+    public void readState(DataInput in) throws IOException {
+        store.readState(in);
+        mario.readState(in);
+        score = in.readInt();
+        frame = in.readInt();
+        gameOver = in.readBoolean();
+        gameWon = in.readBoolean();
+        wasOnGroundLastFrame = in.readBoolean();
+        if (streamer != null) streamer.readState(in);
+    }
+
+    // === Rules ===
+    // The per-tick rules are package-private so that the benchmarks can measure them directly.
+
+    /**
+     * Scores Mario's successful jump over a barrel if aligned and not obstructed by a platform.
+     */
+    void checkBarrelJumpScore() {
+        if (!mario.isJumping()) return;
+
+        // Only barrels in Mario's column, below his feet, can be jumped over. Barrels move every
+        // tick, so scanning their packed edges beats keeping any spatial structure up to date.
+        double left = mario.getLeftEdge(), right = mario.getRightEdge(), bottom = mario.getBottomEdge();
+        for (int slot = barrels.findOverlapping(0, left, bottom, right, Double.POSITIVE_INFINITY); slot >= 0;
+             slot = barrels.findOverlapping(slot + 1, left, bottom, right, Double.POSITIVE_INFINITY)) {
+            if (barrels.isScoredThisJump(slot)) continue;
+
+            boolean horizontallyAligned = mario.getRightEdge() >= barrels.getLeftEdge(slot)
+                    && mario.getLeftEdge() <= barrels.getRightEdge(slot);
+            boolean marioAbove = mario.getBottomEdge() < barrels.getTopEdge(slot);
+
+            if (horizontallyAligned && marioAbove && !isBlockedByPlatform(mario, barrels.getTopEdge(slot))) {
+                score += SCORE_JUMP_OVER;
+                barrels.markScoredThisJump(slot);
+                publish(GameEvent.BARREL_JUMPED);
+            }
+        }
+
+        boolean landed = mario.isOnGround() && !wasOnGroundLastFrame;
+        if (landed) barrels.clearScoredThisJump();
+        wasOnGroundLastFrame = mario.isOnGround();
+    }
+
+    /**
+     * Checks if a platform exists between Mario and a barrel blocking the jump score.
+     */
+    private boolean isBlockedByPlatform(Mario mario, double barrelTop) {
+        int count = platformIndex.query(platformQuery, mario.getBottomEdge(), barrelTop,
+                mario.getLeftEdge(), mario.getRightEdge());
+        for (int i = 0; i < count; i++) {
+            Platform p = platforms.get(platformQuery.get(i));
+            boolean overlapsHorizontally = p.getRightEdge() >= mario.getLeftEdge()
+                    && p.getLeftEdge() <= mario.getRightEdge();
+            boolean platformBetween = p.getTopEdge() < barrelTop
+                    && p.getTopEdge() > mario.getBottomEdge();
+            if (overlapsHorizontally && platformBetween) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Updates barrel logic, including interaction with Mario.
+     */
+    void updateBarrels() {
+        if (useParallelBarrels()) {
+            parallelUpdater.run(ParallelBarrelUpdater.Phase.GRAVITY);
+        } else {
+            barrels.applyGravity();
+        }
+
+        double left = mario.getLeftEdge(), top = mario.getTopEdge();
+        double right = mario.getRightEdge(), bottom = mario.getBottomEdge();
+        for (int slot = barrels.findOverlapping(0, left, top, right, bottom); slot >= 0;
+             slot = barrels.findOverlapping(slot + 1, left, top, right, bottom)) {
+            if (!mario.intersects(barrels.getLeftEdge(slot), barrels.getTopEdge(slot),
+                    barrels.getRightEdge(slot), barrels.getBottomEdge(slot))) continue;
+
+            if (mario.hasHammer()) {
+                barrels.destroy(slot);
+                score += SCORE_BARREL_DESTROYED;
+                publish(GameEvent.BARREL_SMASHED);
+            } else {
+                endGame(GameEvent.DEATH);
+            }
+        }
+    }
+
+    /** Handles hammer pickup and gives Mario invincibility. */
+    private void handleHammerPickup() {
+        if (!hammer.isCollected() && mario.intersects(hammer)) {
+            hammer.collect();
+            mario.collectHammer();
+            publish(GameEvent.HAMMER_COLLECTED);
+        }
+    }
+
+    /** Determines whether Mario has reached win or lose conditions. */
+    private void checkWinOrLoseConditions() {
+        boolean touchingDonkey = mario.intersects(donkey);
+        if (!mario.hasHammer() && touchingDonkey) {
+            endGame(GameEvent.DEATH);
+        }
+        if (mario.hasHammer() && touchingDonkey) {
+            endGame(GameEvent.WIN);
+        }
+        if (frame >= maxFrames) {
+            endGame(GameEvent.TIMEOUT);
+        }
+    }
+
+    /**
+     * Lands every falling entity that has a collider but is not a barrel; barrels land in
+     * {@link #landBarrels}. Climbers on or just off a ladder are left alone.
+     */
+    void landBodies() {
+        for (int a = 0; a < store.getArchetypeCount(); a++) {
+            Archetype archetype = store.getArchetype(a);
+            if (!archetype.hasAll(LANDING_BODY) || archetype.has(Component.JUMPABLE)) continue;
+            for (int row = 0; row < archetype.getSlotCount(); row++) {
+                if (archetype.isAlive(row)) land(archetype, row, platformQuery);
+            }
+        }
+    }
+
+    /** Batch platform collision for every live barrel. */
+    void landBarrels() {
+        if (useParallelBarrels()) {
+            parallelUpdater.run(ParallelBarrelUpdater.Phase.LANDING);
+        } else {
+            for (int slot = 0; slot < barrels.getSlotCount(); slot++) {
+                if (barrels.isAlive(slot)) landBarrel(slot, platformQuery);
+            }
+        }
+    }
+
+    /**
+     * Handles collision between a single barrel and the platforms.
+     * Only touches the barrel's own slot, so different slots may land concurrently.
+     */
+    boolean landBarrel(int slot, QueryBuffer query) {
+        return land(barrels, slot, query);
+    }
+
+    /**
+     * Handles collision between one falling entity and the platforms.
+     * Only touches the entity's own row, so different rows may land concurrently.
+     */
+    private boolean land(Archetype archetype, int row, QueryBuffer query) {
+        if (archetype.has(Component.CLIMBER) && archetype.isClimbingBuffered(row)) return false;
+
+        double velocityY = archetype.getVelocityY(row);
+        if (velocityY <= 0) return false;
+
+        // Sweep from where the entity started this tick to where it will be after falling one more
+        double height = archetype.getHeight(row);
+        Platform p = findLandingPlatform(query, archetype.getLeftEdge(row), archetype.getWidth(row),
+                archetype.getPreviousY(row) + height, archetype.getBottomEdge(row),
+                archetype.getTopEdge(row) + velocityY + height);
+        if (p == null) return false;
+
+        archetype.land(row, p.getTopEdge());
+        return true;
+    }
+
+    /** Decides whether barrel physics runs on the fork/join pool this tick. */
+    private boolean useParallelBarrels() {
+        if (barrels.getSlotCount() < PARALLEL_BARREL_THRESHOLD) return false;
+        if (parallelUpdater == null) {
+            parallelUpdater = new ParallelBarrelUpdater(this, barrels, ForkJoinPool.commonPool());
+        }
+        return true;
+    }
+
+    /**
+     * Sweeps a falling box down and returns the platform it lands on, or null.
+     * <p>
+     * A platform whose top is at most the snap buffer above the box now is landed on as it
+     * always was: the first such platform in list order wins, whatever the time of impact, so
+     * recorded games play out the same. Only when there is none does the box land on a platform
+     * it fell through earlier in the tick, the one it reached first.
+     */
+    private Platform findLandingPlatform(QueryBuffer query, double left, double width,
+                                         double startBottom, double currentBottom, double endBottom) {
+        // Only platforms whose top lies along the sweep, or just above the box now, can be landed on
+        double minTop = Math.min(startBottom, currentBottom - PLATFORM_SNAP_BUFFER);
+        int count = platformIndex.query(query, minTop, endBottom, left, left + width);
+        Platform tunnelled = null;
+        double tunnelledImpact = SweptCollision.NO_IMPACT;
+        for (int i = 0; i < count; i++) {
+            Platform p = platforms.get(query.get(i));
+            double impact = SweptCollision.timeOfImpact(left, width, startBottom, currentBottom, endBottom,
+                    p, PLATFORM_SNAP_BUFFER);
+            if (impact == SweptCollision.NO_IMPACT) continue;
+            if (currentBottom <= p.getTopEdge() + PLATFORM_SNAP_BUFFER) return p;
+            if (impact < tunnelledImpact) {
+                tunnelled = p;
+                tunnelledImpact = impact;
+            }
+        }
+        return tunnelled;
+    }
+
+    /** Handles Mario's interaction with ladders and climbing mechanics. */
+    void handleLadderClimbing(InputState input) {
+        boolean onLadder = false;
+
+        // Ladders overlapping Mario, in list order
+        int count = ladderIndex.query(ladderQuery, mario.getTopEdge() - ladderIndex.getMaxHeight(),
+                mario.getBottomEdge(), mario.getLeftEdge(), mario.getRightEdge());
+        for (int i = 0; i < count; i++) {
+            Ladder ladder = ladders.get(ladderQuery.get(i));
+            if (mario.intersects(ladder)) {
+                onLadder = true;
+
+                if (input.isUpDown()) {
+                    mario.setY(mario.getTopEdge() - CLIMB_SPEED);
+                    mario.setClimbing(true);
+                    mario.setOnGround(true);
+                    return;
+                } else if (input.isDownDown()) {
+                    if (!canClimbDown(ladder)) return;
+                    mario.setY(mario.getY() + CLIMB_SPEED);
+                    mario.setClimbing(true);
+                    mario.setOnGround(true);
+                    return;
+                } else {
+                    mario.setClimbing(true);
+                    mario.setOnGround(true);
+                    return;
+                }
+            }
+        }
+
+        if (input.isDownDown()) {
+            // Ladders whose top is just below Mario's feet, under his centre
+            double feet = mario.getBottomEdge();
+            count = ladderIndex.query(ladderQuery, feet - Mario.LADDER_ABOVE_TOLERANCE,
+                    feet + Mario.LADDER_ABOVE_TOLERANCE, mario.getCenterX(), mario.getCenterX());
+            for (int i = 0; i < count; i++) {
+                Ladder ladder = ladders.get(ladderQuery.get(i));
+                if (mario.isAboveLadder(ladder) && isOnPlatformAbove(ladder)) {
+                    mario.setClimbing(true);
+                    mario.setY(mario.getY() + CLIMB_SPEED);
+                    mario.setOnGround(true);
+                    return;
+                }
+            }
+        }
+
+        if (!onLadder) {
+            mario.setClimbing(false);
+            mario.setOnGround(isStandingOnPlatform());
+        }
+    }
+
+    /**
+     * Checks if Mario can descend without being blocked by a non-ladder-covered platform.
+     */
+    private boolean canClimbDown(Ladder ladder) {
+        // Platforms between Mario's feet and one platform height below his next position
+        double nextBottom = mario.getY() + CLIMB_SPEED + mario.getHeight();
+        int count = platformIndex.query(platformQuery, nextBottom - platformIndex.getMaxHeight(),
+                mario.getBottomEdge(), mario.getLeftEdge(), mario.getRightEdge());
+        for (int i = 0; i < count; i++) {
+            Platform p = platforms.get(platformQuery.get(i));
+            boolean horizontalOverlap = mario.getRightEdge() >= p.getLeftEdge()
+                    && mario.getLeftEdge() <= p.getRightEdge();
+
+            boolean intersectsPlatform = mario.getBottomEdge() >= p.getTopEdge()
+                    && mario.getY() + CLIMB_SPEED + mario.getHeight() <= p.getTopEdge() + p.getHeight();
+
+            boolean ladderCoversPlatform = ladder.getTopEdge() <= p.getTopEdge()
+                    && ladder.getBottomEdge() >= p.getTopEdge() + p.getHeight();
+
+            if (horizontalOverlap && intersectsPlatform && !ladderCoversPlatform) {
+                mario.setY(p.getTopEdge() - mario.getHeight());
+                mario.setClimbing(false);
+                mario.setOnGround(true);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Checks if Mario is on a platform directly above a ladder and aligned with it. */
+    private boolean isOnPlatformAbove(Ladder ladder) {
+        int count = queryPlatformsUnderFeet();
+        for (int i = 0; i < count; i++) {
+            Platform p = platforms.get(platformQuery.get(i));
+            boolean closeToPlatform = Math.abs(mario.getBottomEdge() - p.getTopEdge()) <= 2;
+            boolean overlapsPlatform = mario.getRightEdge() >= p.getLeftEdge()
+                    && mario.getLeftEdge() <= p.getRightEdge();
+            boolean overlapsLadder = mario.getRightEdge() >= ladder.getLeftEdge()
+                    && mario.getLeftEdge() <= ladder.getRightEdge();
+
+            if (closeToPlatform && overlapsPlatform && overlapsLadder) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Checks if Mario is standing on any platform. */
+    boolean isStandingOnPlatform() {
+        int count = queryPlatformsUnderFeet();
+        for (int i = 0; i < count; i++) {
+            Platform p = platforms.get(platformQuery.get(i));
+            boolean horizontal = mario.getRightEdge() >= p.getLeftEdge()
+                    && mario.getLeftEdge() <= p.getRightEdge();
+
+            boolean onTop = Math.abs(mario.getBottomEdge() - p.getTopEdge()) <= 2;
+
+            if (horizontal && onTop) return true;
+        }
+        return false;
+    }
+
+    /** Collects the platforms whose top edge is within 2 pixels of Mario's feet and that he overlaps. */
+    private int queryPlatformsUnderFeet() {
+        return platformIndex.query(platformQuery, mario.getBottomEdge() - 2, mario.getBottomEdge() + 2,
+                mario.getLeftEdge(), mario.getRightEdge());
+    }
+}
@@ -0,0 +1,44 @@
+package simulation;
+
+import util.AssetCache;
+import util.IOUtils;
+
+/**
+ * Runs the game rules without opening a window and reports the simulation speed.
+ * <p>
+ * Intended for CI boxes and servers without a GPU: games are stepped back to back
+ * as fast as the CPU allows, restarting whenever one finishes.
+ */
+public class HeadlessRunner {
+
+    /**
+     * Entry point for a headless run.
+     *
+     * @param args Optional number of ticks to simulate (default 1,000,000)
+     */
+    public static void main(String[] args) {
+        long ticks = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+
+        AssetCache.setHeadless(true);
+        LevelConfig level = LevelConfig.load(IOUtils.readPropertiesFile("res/app.properties"));
+
+        InputState input = new InputState();
+        GameWorld world = new GameWorld(level);
+        int games = 1;
+
+        long start = System.nanoTime();
+        for (long tick = 0; tick < ticks; tick++) {
+            if (world.isFinished()) {
+                world = new GameWorld(level);
+                games++;
+            }
+            // Walk right and jump every second, enough to exercise barrels and platforms
+            input.set(false, true, false, false, tick % 60 == 0);
+            world.step(input);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("Simulated %d ticks over %d games in %.3f s (%.0f ticks/s)%n",
+                ticks, games, seconds, ticks / seconds);
+    }
+}
@@ -0,0 +1,191 @@
+package simulation;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeSet;
+
+/**
+ * The controls of every tick of one game, as recorded while it was played.
+ * <p>
+ * The rules are deterministic and read input only through {@link InputState}, so replaying
+ * the recorded ticks on the same level reproduces the game exactly. Each tick is packed into
+ * one byte with {@link InputState#toBits()}, which holds the held arrows and the SPACE press.
+ * <p>
+ * On disk, a log is a header followed by run-length encoded ticks:
+ * <pre>
+ *   int    magic "SDKR"
+ *   byte   format version
+ *   long   level hash, see {@link #hashLevel(Properties)}
+ *   int    number of ticks
+ *   runs   (byte packed controls, varint run length) until every tick is covered
+ * </pre>
+ * Held keys repeat for many ticks, so a minute of play usually takes a few hundred bytes.
+ */
+public class InputLog {
+    private static final int MAGIC = 0x53444B52;
+    private static final int VERSION = 1;
+
+    // Properties that decide the level a game is played on
+    private static final List<String> LEVEL_KEY_PREFIXES = List.of(
+            "mario.start.", "donkey.start.", "hammer.start.", "platforms", "ladder.", "barrel.",
+            "gamePlay.maxFrames", "world.", "window.width", "window.height");
+
+    private final long levelHash;
+    private byte[] ticks = new byte[1024];
+    private int tickCount;
+
+    /**
+     * Creates an empty log.
+     *
+     * @param levelHash Hash of the level the game is played on
+     */
+    public InputLog(long levelHash) {
+        this.levelHash = levelHash;
+    }
+
+    /**
+     * Creates an empty log with room for a whole game, so that recording never grows the buffer.
+     *
+     * @param levelHash Hash of the level the game is played on
+     * @param maxTicks  Longest game on the level, in ticks
+     */
+    public InputLog(long levelHash, int maxTicks) {
+        this.levelHash = levelHash;
+        ticks = new byte[Math.max(maxTicks, 1)];
+    }
+
+    /**
+     * Hashes the properties that define a level, so that a recording is never replayed
+     * on a level it was not made on. Unrelated settings such as fonts are ignored.
+     *
+     * @param gameProps Game configuration properties
+     * @return A 64-bit FNV-1a hash of the level properties
+     */
+    public static long hashLevel(Properties gameProps) {
+        long hash = 0xcbf29ce484222325L;
+        for (String key : new TreeSet<>(gameProps.stringPropertyNames())) {
+            if (LEVEL_KEY_PREFIXES.stream().noneMatch(key::startsWith)) continue;
+            for (char c : (key + '=' + gameProps.getProperty(key) + '\n').toCharArray()) {
+                hash = (hash ^ c) * 0x100000001b3L;
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Records the controls of the next tick.
+     *
+     * @param input Controls the tick was stepped with
+     */
+    public void append(InputState input) {
+        if (tickCount == ticks.length) {
+            ticks = Arrays.copyOf(ticks, tickCount * 2);
+        }
+        ticks[tickCount++] = (byte) input.toBits();
+    }
+
+    /** @return A new log with the same level and ticks, trimmed to the recorded length. */
+    public InputLog copy() {
+        InputLog copy = new InputLog(levelHash, tickCount);
+        System.arraycopy(ticks, 0, copy.ticks, 0, tickCount);
+        copy.tickCount = tickCount;
+        return copy;
+    }
+
+    /** Forgets every recorded tick, keeping the buffer for the next game on the same level. */
+    public void clear() {
+        tickCount = 0;
+    }
+
+    /**
+     * Copies the controls of a recorded tick.
+     *
+     * @param tick Tick number, from 0
+     * @param out  Receives the controls
+     */
+    public void read(int tick, InputState out) {
+        out.setBits(ticks[tick]);
+    }
+
+    /** @return Number of recorded ticks. */
+    public int getTickCount() {
+        return tickCount;
+    }
+
+    /** @return Hash of the level the log was recorded on. */
+    public long getLevelHash() {
+        return levelHash;
+    }
+
+    /**
+     * Writes the log to a file, replacing any existing one.
+     *
+     * @param file Destination file
+     * @throws IOException If the file cannot be written
+     */
+    public void write(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(levelHash);
+            out.writeInt(tickCount);
+            int i = 0;
+            while (i < tickCount) {
+                int run = 1;
+                while (i + run < tickCount && ticks[i + run] == ticks[i]) run++;
+                out.writeByte(ticks[i]);
+                writeVarInt(out, run);
+                i += run;
+            }
+        }
+    }
+
+    /**
+     * Reads a log written by {@link #write(Path)}.
+     *
+     * @param file Source file
+     * @return The recorded log
+     * @throws IOException If the file cannot be read or is not an input log
+     */
+    public static InputLog read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) throw new IOException("Not an input log: " + file);
+            int version = in.readUnsignedByte();
+            if (version != VERSION) throw new IOException("Unsupported input log version " + version + ": " + file);
+
+            InputLog log = new InputLog(in.readLong());
+            int count = in.readInt();
+            log.ticks = new byte[Math.max(count, 1)];
+            while (log.tickCount < count) {
+                byte bits = in.readByte();
+                int run = readVarInt(in);
+                if (run <= 0 || run > count - log.tickCount) throw new IOException("Corrupt input log: " + file);
+                Arrays.fill(log.ticks, log.tickCount, log.tickCount + run, bits);
+                log.tickCount += run;
+            }
+            return log;
+        }
+    }
+
+    private static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Malformed varint in input log");
+    }
+}
@@ -0,0 +1,86 @@
+package simulation;
+
+/**
+ * A snapshot of the player's controls for a single simulation tick.
+ * <p>
+ * The game rules read input only through this class, so they can be driven by the keyboard,
+ * a recording or a bot without any dependency on the window or the Bagel input handler.
+ * A single instance is reused from tick to tick.
+ */
+public class InputState {
+    // Bit flags of the packed form used by input recordings
+    private static final int LEFT_BIT = 1;
+    private static final int RIGHT_BIT = 1 << 1;
+    private static final int UP_BIT = 1 << 2;
+    private static final int DOWN_BIT = 1 << 3;
+    private static final int JUMP_BIT = 1 << 4;
+
+    private boolean left;
+    private boolean right;
+    private boolean up;
+    private boolean down;
+    private boolean jumpPressed;
+
+    /**
+     * Replaces the whole snapshot.
+     *
+     * @param left        True if LEFT is held
+     * @param right       True if RIGHT is held
+     * @param up          True if UP is held
+     * @param down        True if DOWN is held
+     * @param jumpPressed True if SPACE was pressed during this tick
+     */
+    public void set(boolean left, boolean right, boolean up, boolean down, boolean jumpPressed) {
+        this.left = left;
+        this.right = right;
+        this.up = up;
+        this.down = down;
+        this.jumpPressed = jumpPressed;
+    }
+
+    /**
+     * Replaces the whole snapshot with one packed by {@link #toBits()}.
+     *
+     * @param bits Packed controls
+     */
+    public void setBits(int bits) {
+        set((bits & LEFT_BIT) != 0, (bits & RIGHT_BIT) != 0, (bits & UP_BIT) != 0,
+                (bits & DOWN_BIT) != 0, (bits & JUMP_BIT) != 0);
+    }
+
+    /** @return The snapshot packed into the low five bits of an int. */
+    public int toBits() {
+        return (left ? LEFT_BIT : 0) | (right ? RIGHT_BIT : 0) | (up ? UP_BIT : 0)
+                | (down ? DOWN_BIT : 0) | (jumpPressed ? JUMP_BIT : 0);
+    }
+
+    /** Releases every control. */
+    public void clear() {
+        set(false, false, false, false, false);
+    }
+
+    /** @return True if LEFT is held. */
+    public boolean isLeftDown() {
+        return left;
+    }
+
+    /** @return True if RIGHT is held. */
+    public boolean isRightDown() {
+        return right;
+    }
+
+    /** @return True if UP is held. */
+    public boolean isUpDown() {
+        return up;
+    }
+
+    /** @return True if DOWN is held. */
+    public boolean isDownDown() {
+        return down;
+    }
+
+    /** @return True if SPACE was pressed during this tick. */
+    public boolean wasJumpPressed() {
+        return jumpPressed;
+    }
+}
@@ -0,0 +1,129 @@
+package simulation;
+
+import entities.Ladder;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An immutable index over the ladders of a level, built once after they have been snapped
+ * onto their platforms. Ladders must not move afterwards.
+ * <p>
+ * Ladders are grouped into columns of equal left edge, sorted by left edge, and each column is
+ * sorted by top edge. A query binary-searches the first column that can reach its horizontal
+ * interval, then binary-searches each column for the first ladder in its vertical range, so tall
+ * levels with many ladders per column are as cheap to query as wide ones.
+ * <p>
+ * Queries follow the conventions of {@link PlatformIndex}: ids are ladder list indices returned
+ * in ascending order, candidates include ladders within a tiny tolerance of the bounds, and
+ * concurrent callers each use their own {@link QueryBuffer}.
+ */
+public class LadderIndex {
+    private static final double TOLERANCE = 1e-6;
+
+    // Ladder edges and list indices, sorted by left edge and then by top edge
+    private final double[] lefts;
+    private final double[] rights;
+    private final double[] tops;
+    private final int[] ids;
+
+    // Column c covers sorted positions [columnStarts[c], columnStarts[c + 1])
+    private final double[] columnLefts;
+    private final int[] columnStarts;
+    private final int columnCount;
+
+    private final double maxWidth;
+    private final double maxHeight;
+
+    /**
+     * Builds the index for a list of ladders.
+     *
+     * @param ladders The level's ladders; ids are indices into this list
+     */
+    public LadderIndex(List<Ladder> ladders) {
+        int count = ladders.size();
+        double[] unsortedLefts = new double[count];
+        double[] unsortedTops = new double[count];
+        for (int i = 0; i < count; i++) {
+            unsortedLefts[i] = ladders.get(i).getLeftEdge();
+            unsortedTops[i] = ladders.get(i).getTopEdge();
+        }
+        int[] order = IndexSort.order(unsortedLefts, unsortedTops);
+
+        lefts = new double[count];
+        rights = new double[count];
+        tops = new double[count];
+        ids = new int[count];
+        double[] columnLeftsBuilder = new double[count];
+        int[] columnStartsBuilder = new int[count + 1];
+        int columns = 0;
+        double widest = 0, tallest = 0;
+
+        for (int i = 0; i < count; i++) {
+            Ladder ladder = ladders.get(order[i]);
+            lefts[i] = ladder.getLeftEdge();
+            rights[i] = ladder.getRightEdge();
+            tops[i] = ladder.getTopEdge();
+            ids[i] = order[i];
+            widest = Math.max(widest, rights[i] - lefts[i]);
+            tallest = Math.max(tallest, ladder.getBottomEdge() - tops[i]);
+
+            if (columns == 0 || lefts[i] != columnLeftsBuilder[columns - 1]) {
+                columnLeftsBuilder[columns] = lefts[i];
+                columnStartsBuilder[columns] = i;
+                columns++;
+            }
+        }
+        columnStartsBuilder[columns] = count;
+
+        columnCount = columns;
+        columnLefts = Arrays.copyOf(columnLeftsBuilder, columns);
+        columnStarts = Arrays.copyOf(columnStartsBuilder, columns + 1);
+        maxWidth = widest;
+        maxHeight = tallest;
+    }
+
+    /**
+     * Collects the ids of all ladders whose top edge lies in {@code [minTop, maxTop]} and whose
+     * horizontal extent overlaps {@code [left, right]}, both inclusive.
+     * <p>
+     * To find the ladders overlapping a box, pass {@code top - getMaxHeight()} and {@code bottom}
+     * as the vertical range; to find the ladder just below a point, pass a point-wide interval.
+     *
+     * @param query  Buffer that receives the candidates
+     * @param minTop Smallest top edge to include
+     * @param maxTop Largest top edge to include
+     * @param left   Left end of the horizontal interval
+     * @param right  Right end of the horizontal interval
+     * @return Number of candidates, readable through {@link QueryBuffer#get(int)}
+     */
+    public int query(QueryBuffer query, double minTop, double maxTop, double left, double right) {
+        query.reset();
+        for (int column = firstAtOrAbove(columnLefts, 0, columnCount, left - maxWidth - TOLERANCE);
+             column < columnCount && columnLefts[column] <= right + TOLERANCE; column++) {
+            int end = columnStarts[column + 1];
+            int i = firstAtOrAbove(tops, columnStarts[column], end, minTop - TOLERANCE);
+            for (; i < end && tops[i] <= maxTop + TOLERANCE; i++) {
+                if (rights[i] >= left - TOLERANCE) query.add(ids[i]);
+            }
+        }
+        query.sort();
+        return query.size();
+    }
+
+    /** @return Height of the tallest ladder, for queries that need ladders reaching into a box */
+    public double getMaxHeight() {
+        return maxHeight;
+    }
+
+    /** Returns the first position in {@code [from, to)} of a sorted array whose value is at least the key. */
+    private static int firstAtOrAbove(double[] sorted, int from, int to, double key) {
+        int low = from, high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < key) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+}
@@ -0,0 +1,274 @@
+package simulation;
+
+import entities.*;
+import util.EntityLoader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * An immutable, typed description of a level, compiled once from the game properties
+ * or from a binary {@link LevelFile}.
+ * <p>
+ * Compiling parses every coordinate, snaps ladders and barrels onto the platforms below them
+ * and builds the platform and ladder indexes. Platforms and ladders never change during play,
+ * so every {@link GameWorld} built from the same config shares them; starting another game
+ * only creates the moving entities, without parsing or snapping anything again.
+ * <p>
+ * Entity sizes come from the {@link util.AssetCache}, so a config must be compiled in the same
+ * asset mode (windowed or headless) as the worlds that use it.
+ */
+public class LevelConfig {
+    private final double marioStartX, marioStartY;
+    private final double donkeyStartX, donkeyStartY;
+    private final double hammerStartX, hammerStartY;
+    private final double worldWidth, worldHeight;
+    private final int maxFrames;
+    private final long levelHash;
+
+    private final List<Platform> platforms;
+    private final List<Ladder> ladders;
+    private final PlatformIndex platformIndex;
+    private final LadderIndex ladderIndex;
+
+    // Top-left corners of the barrels after snapping, in spawn order
+    private final double[] barrelLefts, barrelTops;
+
+    // Spatial chunks for streaming, or null if the whole level is always simulated
+    private final ChunkMap chunkMap;
+
+    /**
+     * Builds a level from raw coordinates, as stored in the properties or a {@link LevelFile}.
+     * Coordinate arrays hold the centres of the entities as interleaved x, y pairs.
+     *
+     * @param starts      Mario, Donkey and hammer start positions as interleaved x, y pairs
+     * @param world       World width, world height and chunk size (0 to disable streaming)
+     * @param maxFrames   Number of ticks before the game is lost on time
+     * @param levelHash   Hash of the level properties the coordinates came from
+     * @param platformXY  Platform centres
+     * @param ladderXY    Ladder centres, before snapping
+     * @param barrelXY    Barrel centres, before snapping
+     */
+    LevelConfig(double[] starts, double[] world, int maxFrames, long levelHash,
+                double[] platformXY, double[] ladderXY, double[] barrelXY) {
+        marioStartX = starts[0];
+        marioStartY = starts[1];
+        donkeyStartX = starts[2];
+        donkeyStartY = starts[3];
+        hammerStartX = starts[4];
+        hammerStartY = starts[5];
+        worldWidth = world[0];
+        worldHeight = world[1];
+        this.maxFrames = maxFrames;
+        this.levelHash = levelHash;
+
+        List<Platform> loadedPlatforms = new ArrayList<>(platformXY.length / 2);
+        for (int i = 0; i < platformXY.length; i += 2) {
+            loadedPlatforms.add(new Platform(platformXY[i], platformXY[i + 1]));
+        }
+        platforms = Collections.unmodifiableList(loadedPlatforms);
+        platformIndex = new PlatformIndex(platforms);
+        QueryBuffer query = new QueryBuffer();
+
+        // Ladders are aligned above platforms before they are indexed, and never move again
+        List<Ladder> loadedLadders = new ArrayList<>(ladderXY.length / 2);
+        for (int i = 0; i < ladderXY.length; i += 2) {
+            loadedLadders.add(new Ladder(ladderXY[i], ladderXY[i + 1]));
+        }
+        for (Ladder ladder : loadedLadders) {
+            Platform platform = findOverlappingPlatform(ladder, query);
+            if (platform != null) {
+                ladder.snapAbovePlatform(platform);
+            }
+        }
+        ladders = Collections.unmodifiableList(loadedLadders);
+        ladderIndex = new LadderIndex(ladders);
+
+        barrelLefts = new double[barrelXY.length / 2];
+        barrelTops = new double[barrelXY.length / 2];
+        for (int i = 0; i < barrelLefts.length; i++) {
+            Barrel barrel = new Barrel(barrelXY[2 * i], barrelXY[2 * i + 1]);
+            Platform platform = findOverlappingPlatform(barrel, query);
+            if (platform != null) {
+                barrel.snapAbovePlatform(platform);
+            }
+            barrelLefts[i] = barrel.getX();
+            barrelTops[i] = barrel.getY();
+        }
+
+        chunkMap = world[2] > 0 ? new ChunkMap(this, world[2]) : null;
+    }
+
+    /**
+     * Compiles the level described in the game properties.
+     *
+     * @param gameProps Game configuration properties
+     * @return The compiled level
+     */
+    public static LevelConfig compile(Properties gameProps) {
+        return new LevelConfig(parseStarts(gameProps), parseWorld(gameProps),
+                Integer.parseInt(gameProps.getProperty("gamePlay.maxFrames")),
+                InputLog.hashLevel(gameProps),
+                parsePlatforms(gameProps),
+                EntityLoader.loadCoordinates(gameProps, "ladder"),
+                EntityLoader.loadCoordinates(gameProps, "barrel"));
+    }
+
+    /**
+     * Loads the level the game properties point to: the binary level file named by
+     * {@code levelFile} if that key is set, otherwise the layout in the properties themselves.
+     *
+     * @param gameProps Game configuration properties
+     * @return The compiled level
+     * @throws UncheckedIOException If the level file cannot be read
+     */
+    public static LevelConfig load(Properties gameProps) {
+        String levelFile = gameProps.getProperty("levelFile");
+        if (levelFile == null) return compile(gameProps);
+        try {
+            return LevelFile.load(Path.of(levelFile));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Returns the start positions of Mario, Donkey and the hammer as interleaved x, y pairs. */
+    static double[] parseStarts(Properties gameProps) {
+        double[] starts = new double[6];
+        String[] keys = {"mario.start.", "donkey.start.", "hammer.start."};
+        for (int i = 0; i < keys.length; i++) {
+            starts[2 * i] = Double.parseDouble(gameProps.getProperty(keys[i] + "x"));
+            starts[2 * i + 1] = Double.parseDouble(gameProps.getProperty(keys[i] + "y"));
+        }
+        return starts;
+    }
+
+    /**
+     * Returns the world width, world height and chunk size. The world defaults to the size of
+     * the window, and a missing chunk size disables streaming.
+     */
+    static double[] parseWorld(Properties gameProps) {
+        return new double[] {
+                Double.parseDouble(gameProps.getProperty("world.width", gameProps.getProperty("window.width"))),
+                Double.parseDouble(gameProps.getProperty("world.height", gameProps.getProperty("window.height"))),
+                Double.parseDouble(gameProps.getProperty("world.chunkSize", "0"))
+        };
+    }
+
+    /** Returns the platform centres listed in {@code platforms=x,y;x,y;...} as interleaved x, y pairs. */
+    static double[] parsePlatforms(Properties gameProps) {
+        String[] platformData = gameProps.getProperty("platforms").split(";");
+        double[] platformXY = new double[platformData.length * 2];
+        for (int i = 0; i < platformData.length; i++) {
+            String[] xy = platformData[i].split(",");
+            platformXY[2 * i] = Double.parseDouble(xy[0]);
+            platformXY[2 * i + 1] = Double.parseDouble(xy[1]);
+        }
+        return platformXY;
+    }
+
+    /** Returns the first platform in list order that overlaps the given box, or null if none does. */
+    private Platform findOverlappingPlatform(Collidable box, QueryBuffer query) {
+        // A platform reaches into the box if its top lies at most one platform height above it
+        int count = platformIndex.query(query, box.getTopEdge() - platformIndex.getMaxHeight(),
+                box.getBottomEdge(), box.getLeftEdge(), box.getRightEdge());
+        for (int i = 0; i < count; i++) {
+            Platform platform = platforms.get(query.get(i));
+            if (platform.intersects(box)) return platform;
+        }
+        return null;
+    }
+
+    // === Accessors ===
+
+    public double getMarioStartX() {
+        return marioStartX;
+    }
+
+    public double getMarioStartY() {
+        return marioStartY;
+    }
+
+    public double getDonkeyStartX() {
+        return donkeyStartX;
+    }
+
+    public double getDonkeyStartY() {
+        return donkeyStartY;
+    }
+
+    public double getHammerStartX() {
+        return hammerStartX;
+    }
+
+    public double getHammerStartY() {
+        return hammerStartY;
+    }
+
+    public double getWorldWidth() {
+        return worldWidth;
+    }
+
+    public double getWorldHeight() {
+        return worldHeight;
+    }
+
+    /** @return The level's streaming chunks, or null if the whole level is always simulated. */
+    public ChunkMap getChunkMap() {
+        return chunkMap;
+    }
+
+    /** @return Number of ticks before the game is lost on time. */
+    public int getMaxFrames() {
+        return maxFrames;
+    }
+
+    /** @return Hash of the level properties, see {@link InputLog#hashLevel(Properties)}. */
+    public long getLevelHash() {
+        return levelHash;
+    }
+
+    /** @return The level's platforms, shared by every world and never modified. */
+    public List<Platform> getPlatforms() {
+        return platforms;
+    }
+
+    /** @return The level's ladders, already snapped onto platforms, shared by every world. */
+    public List<Ladder> getLadders() {
+        return ladders;
+    }
+
+    public PlatformIndex getPlatformIndex() {
+        return platformIndex;
+    }
+
+    public LadderIndex getLadderIndex() {
+        return ladderIndex;
+    }
+
+    /** @return Number of barrels at the start of a game. */
+    public int getBarrelCount() {
+        return barrelLefts.length;
+    }
+
+    /**
+     * @param barrel Barrel number, in spawn order
+     * @return Left edge of the barrel at the start of a game
+     */
+    public double getBarrelLeft(int barrel) {
+        return barrelLefts[barrel];
+    }
+
+    /**
+     * @param barrel Barrel number, in spawn order
+     * @return Top edge of the barrel at the start of a game
+     */
+    public double getBarrelTop(int barrel) {
+        return barrelTops[barrel];
+    }
+}
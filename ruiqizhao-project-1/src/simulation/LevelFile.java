@@ -0,0 +1,133 @@
+package simulation;
+
+import util.EntityLoader;
+import util.IOUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Properties;
+
+/**
+ * A compact binary level format for levels too large to parse from properties quickly.
+ * <p>
+ * A level file holds exactly what the properties layout holds, as raw doubles, so loading one
+ * is a bulk copy out of a memory-mapped file instead of splitting and parsing strings.
+ * All values are big-endian and every double is 8-byte aligned:
+ * <pre>
+ *   int    magic "SDKL"
+ *   short  format version
+ *   short  reserved, 0
+ *   long   hash of the properties the level was converted from, see {@link InputLog#hashLevel}
+ *   int    gamePlay.maxFrames
+ *   int    number of platforms
+ *   int    number of ladders
+ *   int    number of barrels
+ *   double[6]              Mario, Donkey and hammer start positions (x, y pairs)
+ *   double[3]              world width, world height, chunk size (0 = no streaming)
+ *   double[2 * platforms]  platform centres (x, y pairs)
+ *   double[2 * ladders]    ladder centres, before snapping
+ *   double[2 * barrels]    barrel centres, before snapping
+ * </pre>
+ * Version 1 files have no world doubles; they are played in the original 1024x768 world.
+ * Because the hash is that of the source properties, recordings made on either form of a level
+ * replay on the other. Point the game at a level file with the {@code levelFile} property.
+ */
+public class LevelFile {
+    private static final int MAGIC = 0x53444B4C;
+    private static final short VERSION = 2;
+    private static final int HEADER_BYTES = 32;
+    private static final int START_DOUBLES = 6;
+    private static final int WORLD_DOUBLES = 3;
+    private static final double[] VERSION_1_WORLD = {1024, 768, 0};
+
+    /**
+     * Converts the level layout of the game properties into a level file.
+     *
+     * @param gameProps Game configuration properties describing the level
+     * @param file      Destination file, replaced if it exists
+     * @throws IOException If the file cannot be written
+     */
+    public static void write(Properties gameProps, Path file) throws IOException {
+        double[] starts = LevelConfig.parseStarts(gameProps);
+        double[] world = LevelConfig.parseWorld(gameProps);
+        double[] platformXY = LevelConfig.parsePlatforms(gameProps);
+        double[] ladderXY = EntityLoader.loadCoordinates(gameProps, "ladder");
+        double[] barrelXY = EntityLoader.loadCoordinates(gameProps, "barrel");
+
+        int doubles = START_DOUBLES + WORLD_DOUBLES + platformXY.length + ladderXY.length + barrelXY.length;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + doubles * Double.BYTES);
+        buffer.putInt(MAGIC)
+                .putShort(VERSION)
+                .putShort((short) 0)
+                .putLong(InputLog.hashLevel(gameProps))
+                .putInt(Integer.parseInt(gameProps.getProperty("gamePlay.maxFrames")))
+                .putInt(platformXY.length / 2)
+                .putInt(ladderXY.length / 2)
+                .putInt(barrelXY.length / 2);
+        buffer.asDoubleBuffer().put(starts).put(world).put(platformXY).put(ladderXY).put(barrelXY);
+        buffer.rewind();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) channel.write(buffer);
+        }
+    }
+
+    /**
+     * Loads and compiles a level file.
+     *
+     * @param file The level file
+     * @return The compiled level
+     * @throws IOException If the file cannot be read, is not a level file or is truncated
+     */
+    public static LevelConfig load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) throw new IOException("Not a level file: " + file);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            if (buffer.getInt() != MAGIC) throw new IOException("Not a level file: " + file);
+            short version = buffer.getShort();
+            if (version != 1 && version != VERSION) throw new IOException("Unsupported level file version " + version + ": " + file);
+            buffer.getShort();
+            long levelHash = buffer.getLong();
+            int maxFrames = buffer.getInt();
+            int platformCount = buffer.getInt();
+            int ladderCount = buffer.getInt();
+            int barrelCount = buffer.getInt();
+
+            int worldDoubles = version == 1 ? 0 : WORLD_DOUBLES;
+            long doubles = START_DOUBLES + worldDoubles + 2L * platformCount + 2L * ladderCount + 2L * barrelCount;
+            if (platformCount < 0 || ladderCount < 0 || barrelCount < 0
+                    || size != HEADER_BYTES + doubles * Double.BYTES) {
+                throw new IOException("Truncated or corrupt level file: " + file);
+            }
+
+            double[] starts = new double[START_DOUBLES];
+            double[] world = version == 1 ? VERSION_1_WORLD.clone() : new double[WORLD_DOUBLES];
+            double[] platformXY = new double[2 * platformCount];
+            double[] ladderXY = new double[2 * ladderCount];
+            double[] barrelXY = new double[2 * barrelCount];
+            buffer.asDoubleBuffer().get(starts).get(world, 0, worldDoubles).get(platformXY).get(ladderXY).get(barrelXY);
+
+            return new LevelConfig(starts, world, maxFrames, levelHash, platformXY, ladderXY, barrelXY);
+        }
+    }
+
+    /**
+     * Converts a properties level into a level file.
+     *
+     * @param args The source properties file and the destination level file
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: LevelFile <level.properties> <level.sdkl>");
+            System.exit(2);
+        }
+        write(IOUtils.readPropertiesFile(args[0]), Path.of(args[1]));
+    }
+}
@@ -0,0 +1,57 @@
+package simulation;
+
+import java.util.Properties;
+
+/**
+ * Generates synthetic levels of arbitrary size for benchmarks and stress runs.
+ * <p>
+ * Platforms are laid out in a grid of floors, ladders stand on top of platforms and
+ * barrels rest on them, using the same property keys as {@code res/app.properties}.
+ */
+public class LevelGenerator {
+    private static final double COLUMN_SPACING = 800;
+    private static final double FLOOR_SPACING = 130;
+    private static final double GROUND_Y = 753;
+
+    /**
+     * Creates a copy of the base properties with the level layout replaced.
+     *
+     * @param baseProps Properties providing everything except the layout (e.g., start positions)
+     * @param platformCount Number of platforms to generate (at least one)
+     * @param ladderCount   Number of ladders to generate
+     * @param barrelCount   Number of barrels to generate
+     * @return Properties describing the generated level
+     */
+    public static Properties generate(Properties baseProps, int platformCount, int ladderCount, int barrelCount) {
+        Properties props = new Properties();
+        props.putAll(baseProps);
+
+        int columns = (int) Math.ceil(Math.sqrt(platformCount));
+        double[] platformX = new double[platformCount];
+        double[] platformY = new double[platformCount];
+
+        StringBuilder platforms = new StringBuilder();
+        for (int i = 0; i < platformCount; i++) {
+            platformX[i] = 350 + (i % columns) * COLUMN_SPACING;
+            platformY[i] = GROUND_Y - (i / columns) * FLOOR_SPACING;
+            if (i > 0) platforms.append(';');
+            platforms.append(platformX[i]).append(',').append(platformY[i]);
+        }
+        props.setProperty("platforms", platforms.toString());
+
+        props.setProperty("ladder.count", Integer.toString(ladderCount));
+        for (int i = 0; i < ladderCount; i++) {
+            int p = i % platformCount;
+            double x = platformX[p] - 300 + (i / platformCount % 12) * 50;
+            props.setProperty("ladder." + (i + 1), x + "," + (platformY[p] - 70));
+        }
+
+        props.setProperty("barrel.count", Integer.toString(barrelCount));
+        for (int i = 0; i < barrelCount; i++) {
+            int p = i % platformCount;
+            double x = platformX[p] - 300 + (i / platformCount % 15) * 40;
+            props.setProperty("barrel." + (i + 1), x + "," + (platformY[p] - 25));
+        }
+        return props;
+    }
+}
@@ -0,0 +1,91 @@
+package simulation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * A search-based bot that tries several moves on a copy of the game before committing to one.
+ * <p>
+ * Every few ticks it snapshots the game, and for each candidate move it restores the snapshot
+ * into a private scratch world, holds the move for a short while and then lets a deterministic
+ * {@link ScriptedBot} play on to the end of a fixed horizon. The move whose rollout ends best
+ * (won soonest, then alive holding the hammer, then the highest score) is played until the next
+ * decision; the scripted bot's own choice wins every tie, so the search only steps in to dodge
+ * a death or grab points the script would miss. Because the rules are deterministic, the
+ * rollouts predict exactly what the move would do if nothing else changed.
+ */
+public class LookaheadBot implements Bot {
+    private static final int DECISION_INTERVAL = 10;
+    private static final int HORIZON = 60;
+
+    // Candidate moves as packed controls: idle, left, right, up, down, and jumps left and right
+    private static final int[] MOVES = {0, 1, 2, 4, 8, 1 | 16, 2 | 16};
+    // Marks the move that defers to the scripted policy for the whole rollout
+    private static final int SCRIPTED = -1;
+
+    private final GameWorld scratch;
+    private final ScriptedBot policy = new ScriptedBot(null);
+    private final InputState rolloutInput = new InputState();
+    private final ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+
+    private int move = SCRIPTED;
+    private int ticksUntilDecision;
+
+    /**
+     * Creates a bot for games on a level.
+     *
+     * @param level The level the bot's games are played on
+     */
+    public LookaheadBot(LevelConfig level) {
+        scratch = new GameWorld(level);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void decide(GameWorld world, InputState input) {
+        if (ticksUntilDecision-- <= 0) {
+            move = chooseMove(world);
+            ticksUntilDecision = DECISION_INTERVAL - 1;
+        }
+        if (move == SCRIPTED) policy.decide(world, input);
+        else input.setBits(move);
+    }
+
+    private int chooseMove(GameWorld world) {
+        try {
+            snapshot.reset();
+            world.writeState(new DataOutputStream(snapshot));
+            int best = SCRIPTED;
+            double bestValue = rollout(SCRIPTED);
+            for (int candidate : MOVES) {
+                double value = rollout(candidate);
+                if (value > bestValue) {
+                    best = candidate;
+                    bestValue = value;
+                }
+            }
+            return best;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Plays a move from the snapshot and rates where it leads. */
+    private double rollout(int candidate) throws IOException {
+        scratch.readState(new DataInputStream(new ByteArrayInputStream(snapshot.toByteArray())));
+        for (int t = 0; t < HORIZON && !scratch.isFinished(); t++) {
+            if (candidate == SCRIPTED || t >= DECISION_INTERVAL) policy.decide(scratch, rolloutInput);
+            else rolloutInput.setBits(candidate);
+            scratch.step(rolloutInput);
+        }
+
+        if (scratch.isGameWon()) return 1e9 - scratch.getFrame();
+        if (scratch.isGameOver()) return -1e9 + scratch.getFrame();
+        double hammerBonus = scratch.getMario().hasHammer() ? 1e6 : 0;
+        return hammerBonus + scratch.getScore();
+    }
+}
@@ -0,0 +1,92 @@
+package simulation;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs the per-barrel physics phases of a {@link GameWorld} across a fork/join pool.
+ * <p>
+ * Barrel slots are split into contiguous chunks, one task per chunk. Each barrel's gravity and
+ * platform landing only read static platforms and write the barrel's own slot, so the result
+ * is identical to a single-threaded pass regardless of how the chunks are scheduled.
+ * Events that depend on several barrels (scoring, game over) are not produced here; the world
+ * derives them afterwards on the game thread in ascending slot order.
+ * <p>
+ * Tasks and their platform query buffers are allocated once and reinitialised every tick.
+ */
+class ParallelBarrelUpdater {
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /** The phases that can run in parallel. */
+    enum Phase { GRAVITY, LANDING }
+
+    private final GameWorld world;
+    private final Archetype barrels;
+    private final ForkJoinPool pool;
+    private final Chunk[] chunks;
+    private final Root root = new Root();
+    private Phase phase;
+
+    /**
+     * Creates an updater for the barrels of a world.
+     *
+     * @param world   The world whose landing rules are applied
+     * @param barrels The world's barrel archetype
+     * @param pool    The pool that runs the chunks
+     */
+    ParallelBarrelUpdater(GameWorld world, Archetype barrels, ForkJoinPool pool) {
+        this.world = world;
+        this.barrels = barrels;
+        this.pool = pool;
+        this.chunks = new Chunk[Math.max(1, pool.getParallelism() * CHUNKS_PER_THREAD)];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = new Chunk();
+        }
+    }
+
+    /**
+     * Runs one phase over every barrel slot and waits for it to finish.
+     *
+     * @param phase The phase to run
+     */
+    void run(Phase phase) {
+        this.phase = phase;
+        int slotCount = barrels.getSlotCount();
+        int chunkSize = (slotCount + chunks.length - 1) / chunks.length;
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i].reinitialize();
+            chunks[i].from = Math.min(slotCount, i * chunkSize);
+            chunks[i].to = Math.min(slotCount, (i + 1) * chunkSize);
+        }
+        root.reinitialize();
+        pool.invoke(root);
+    }
+
+    /** Forks every chunk and joins them all. */
+    @SuppressWarnings("serial") // Tasks are never serialized
+    private class Root extends RecursiveAction {
+        @Override
+        protected void compute() {
+            ForkJoinTask.invokeAll(chunks);
+        }
+    }
+
+    /** A contiguous range of barrel slots with its own platform query buffer. */
+    @SuppressWarnings("serial") // Tasks are never serialized
+    private class Chunk extends RecursiveAction {
+        private final QueryBuffer query = new QueryBuffer();
+        private int from, to;
+
+        @Override
+        protected void compute() {
+            if (phase == Phase.GRAVITY) {
+                barrels.applyGravity(from, to);
+            } else {
+                for (int slot = from; slot < to; slot++) {
+                    if (barrels.isAlive(slot)) world.landBarrel(slot, query);
+                }
+            }
+        }
+    }
+}
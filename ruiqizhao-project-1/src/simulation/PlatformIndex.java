@@ -0,0 +1,131 @@
+package simulation;
+
+import entities.Platform;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An immutable index over the platforms of a level, built once at load time.
+ * <p>
+ * Platforms are sorted by top edge and grouped into rows of equal top edge; each row is sorted
+ * by left edge. A query for platforms whose top edge lies in a vertical range and which overlap
+ * a horizontal interval binary-searches the first row, then binary-searches each row for the
+ * first platform that can reach the interval, so its cost is logarithmic in the number of
+ * platforms plus the number of candidates.
+ * <p>
+ * Ids are platform list indices and results are returned in ascending order, so callers
+ * keep the first-match semantics of a linear scan. Candidates include platforms
+ * within a tiny tolerance of the query bounds, so callers that compute their bounds with slightly
+ * different rounding than their exact tests never miss a platform; the exact tests decide.
+ * The index is read-only after construction, so any number of threads may query it at once,
+ * each with its own {@link QueryBuffer}.
+ */
+public class PlatformIndex {
+    private static final double TOLERANCE = 1e-6;
+
+    // Platform edges and list indices, sorted by top edge and then by left edge
+    private final double[] tops;
+    private final double[] lefts;
+    private final double[] rights;
+    private final int[] ids;
+
+    // Row r covers sorted positions [rowStarts[r], rowStarts[r + 1])
+    private final double[] rowTops;
+    private final int[] rowStarts;
+    private final double[] rowMaxWidths;
+    private final int rowCount;
+
+    private final double maxHeight;
+
+    /**
+     * Builds the index for a list of platforms.
+     *
+     * @param platforms The level's platforms; ids are indices into this list
+     */
+    public PlatformIndex(List<Platform> platforms) {
+        int count = platforms.size();
+        double[] unsortedTops = new double[count];
+        double[] unsortedLefts = new double[count];
+        for (int i = 0; i < count; i++) {
+            unsortedTops[i] = platforms.get(i).getTopEdge();
+            unsortedLefts[i] = platforms.get(i).getLeftEdge();
+        }
+        int[] order = IndexSort.order(unsortedTops, unsortedLefts);
+
+        tops = new double[count];
+        lefts = new double[count];
+        rights = new double[count];
+        ids = new int[count];
+        double[] rowTopsBuilder = new double[count];
+        int[] rowStartsBuilder = new int[count + 1];
+        double[] rowWidthsBuilder = new double[count];
+        int rows = 0;
+        double tallest = 0;
+
+        for (int i = 0; i < count; i++) {
+            Platform p = platforms.get(order[i]);
+            tops[i] = p.getTopEdge();
+            lefts[i] = p.getLeftEdge();
+            rights[i] = p.getRightEdge();
+            ids[i] = order[i];
+            tallest = Math.max(tallest, p.getBottomEdge() - p.getTopEdge());
+
+            if (rows == 0 || tops[i] != rowTopsBuilder[rows - 1]) {
+                rowTopsBuilder[rows] = tops[i];
+                rowStartsBuilder[rows] = i;
+                rows++;
+            }
+            rowWidthsBuilder[rows - 1] = Math.max(rowWidthsBuilder[rows - 1], rights[i] - lefts[i]);
+        }
+        rowStartsBuilder[rows] = count;
+
+        rowCount = rows;
+        rowTops = Arrays.copyOf(rowTopsBuilder, rows);
+        rowStarts = Arrays.copyOf(rowStartsBuilder, rows + 1);
+        rowMaxWidths = Arrays.copyOf(rowWidthsBuilder, rows);
+        maxHeight = tallest;
+    }
+
+    /**
+     * Collects the ids of all platforms whose top edge lies in {@code [minTop, maxTop]} and whose
+     * horizontal extent overlaps {@code [left, right]}, both inclusive.
+     *
+     * @param query  Buffer that receives the candidates
+     * @param minTop Smallest top edge to include
+     * @param maxTop Largest top edge to include
+     * @param left   Left end of the horizontal interval
+     * @param right  Right end of the horizontal interval
+     * @return Number of candidates, readable through {@link QueryBuffer#get(int)}
+     */
+    public int query(QueryBuffer query, double minTop, double maxTop, double left, double right) {
+        query.reset();
+        for (int row = firstAtOrAbove(rowTops, 0, rowCount, minTop - TOLERANCE);
+             row < rowCount && rowTops[row] <= maxTop + TOLERANCE; row++) {
+            int end = rowStarts[row + 1];
+            // No platform in the row is wider than the widest, so any overlap starts from here
+            int i = firstAtOrAbove(lefts, rowStarts[row], end, left - rowMaxWidths[row] - TOLERANCE);
+            for (; i < end && lefts[i] <= right + TOLERANCE; i++) {
+                if (rights[i] >= left - TOLERANCE) query.add(ids[i]);
+            }
+        }
+        query.sort();
+        return query.size();
+    }
+
+    /** @return Height of the tallest platform, for queries that need platforms reaching into a box */
+    public double getMaxHeight() {
+        return maxHeight;
+    }
+
+    /** Returns the first position in {@code [from, to)} of a sorted array whose value is at least the key. */
+    private static int firstAtOrAbove(double[] sorted, int from, int to, double key) {
+        int low = from, high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < key) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+}
@@ -0,0 +1,46 @@
+package simulation;
+
+import java.util.Arrays;
+
+/**
+ * Reusable scratch state and result buffer for broadphase queries.
+ * <p>
+ * Spatial queries write the ids of their candidates here instead of returning a new list,
+ * so querying allocates nothing once the buffer has grown to fit. Each thread that queries
+ * concurrently needs its own buffer.
+ */
+public class QueryBuffer {
+    private int[] results = new int[64];
+    private int resultCount;
+
+    /** @return Number of candidates found by the last query */
+    public int size() {
+        return resultCount;
+    }
+
+    /**
+     * @param index Position in the result of the last query
+     * @return The candidate id at that position, in ascending id order
+     */
+    public int get(int index) {
+        return results[index];
+    }
+
+    /** Empties the result before a new query. */
+    void reset() {
+        resultCount = 0;
+    }
+
+    /** Appends a candidate id. */
+    void add(int id) {
+        if (resultCount == results.length) {
+            results = Arrays.copyOf(results, resultCount * 2);
+        }
+        results[resultCount++] = id;
+    }
+
+    /** Puts the candidates in ascending id order. */
+    void sort() {
+        Arrays.sort(results, 0, resultCount);
+    }
+}
@@ -0,0 +1,143 @@
+package simulation;
+
+import util.AssetCache;
+import util.IOUtils;
+
+import java.io.*;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Re-runs a recorded {@link InputLog} on a headless {@link GameWorld} as fast as the CPU allows.
+ * <p>
+ * While playing forward, the engine keeps a snapshot of the world every
+ * {@code keyframeInterval} ticks. Seeking restores the nearest snapshot at or before the
+ * target and steps forward from there, so jumping to any tick costs at most one interval
+ * of simulation, whichever direction it goes.
+ */
+public class ReplayEngine {
+    /** Ticks between keyframes by default: ten seconds of game time */
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 10 * GameWorld.TICKS_PER_SECOND;
+
+    private final InputLog log;
+    private final int keyframeInterval;
+    private final GameWorld world;
+    private final InputState input = new InputState();
+
+    // keyframes.get(k) is the world state before tick k * keyframeInterval
+    private final List<byte[]> keyframes = new ArrayList<>();
+    private int tick = 0;
+
+    /**
+     * Prepares a replay from the first tick.
+     *
+     * @param level            The level the recording was made on
+     * @param log              The recording to replay
+     * @param keyframeInterval Ticks between snapshots; smaller seeks faster but uses more memory
+     * @throws IllegalArgumentException If the recording was made on a different level
+     */
+    public ReplayEngine(LevelConfig level, InputLog log, int keyframeInterval) {
+        if (level.getLevelHash() != log.getLevelHash()) {
+            throw new IllegalArgumentException("Input log was recorded on a different level");
+        }
+        this.log = log;
+        this.keyframeInterval = keyframeInterval;
+        this.world = new GameWorld(level);
+        keyframes.add(snapshot());
+    }
+
+    /**
+     * Replays the next recorded tick.
+     *
+     * @return False if every recorded tick has already been replayed
+     */
+    public boolean step() {
+        if (tick >= log.getTickCount()) return false;
+        log.read(tick, input);
+        world.step(input);
+        tick++;
+        if (tick % keyframeInterval == 0 && tick / keyframeInterval == keyframes.size()) {
+            keyframes.add(snapshot());
+        }
+        return true;
+    }
+
+    /** Replays every remaining tick. */
+    public void runToEnd() {
+        while (step()) {
+            // Keep stepping until the log runs out
+        }
+    }
+
+    /**
+     * Moves the replay so that exactly {@code target} ticks have been replayed.
+     *
+     * @param target Tick to seek to, clamped to the length of the log
+     */
+    public void seek(int target) {
+        target = Math.max(0, Math.min(target, log.getTickCount()));
+        int keyframe = Math.min(target / keyframeInterval, keyframes.size() - 1);
+        int keyframeTick = keyframe * keyframeInterval;
+        if (target < tick || keyframeTick > tick) {
+            restore(keyframes.get(keyframe));
+            tick = keyframeTick;
+        }
+        while (tick < target) step();
+    }
+
+    /** @return The world as of the current tick. */
+    public GameWorld getWorld() {
+        return world;
+    }
+
+    /** @return Number of ticks replayed so far. */
+    public int getTick() {
+        return tick;
+    }
+
+    private byte[] snapshot() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            world.writeState(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private void restore(byte[] keyframe) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(keyframe))) {
+            world.readState(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Re-scores recordings: replays each log given on the command line against the level in
+     * {@code res/app.properties} and prints the outcome of each game.
+     *
+     * @param args Paths of the input logs to replay
+     */
+    public static void main(String[] args) {
+        AssetCache.setHeadless(true);
+        LevelConfig level = LevelConfig.load(IOUtils.readPropertiesFile("res/app.properties"));
+
+        for (String file : args) {
+            try {
+                long start = System.nanoTime();
+                ReplayEngine replay = new ReplayEngine(level, InputLog.read(Path.of(file)), DEFAULT_KEYFRAME_INTERVAL);
+                replay.runToEnd();
+                double millis = (System.nanoTime() - start) / 1e6;
+
+                GameWorld result = replay.getWorld();
+                String outcome = result.isGameWon() ? "won" : result.isGameOver() ? "lost" : "unfinished";
+                System.out.printf("%s: %s, score %d, time left %d, %d ticks in %.1f ms%n",
+                        file, outcome, result.getScore(), result.getTimeLeft(), replay.getTick(), millis);
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println(file + ": " + e.getMessage());
+            }
+        }
+    }
+}
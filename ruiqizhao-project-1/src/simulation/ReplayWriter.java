@@ -0,0 +1,86 @@
+package simulation;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Saves input recordings to a directory on a background writer, one file per game.
+ * <p>
+ * The render thread only copies the finished game's ticks and queues them; the writer thread
+ * creates the directory and writes the file, so ending a game never waits for the disk.
+ * A recording that cannot be written is reported and skipped; it never interrupts the game.
+ */
+public class ReplayWriter {
+    // Tells the writer to stop once everything before it is written
+    private static final InputLog STOP = new InputLog(0);
+
+    private final Path directory;
+    private final BlockingQueue<InputLog> pending = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile int failedCount;
+
+    /**
+     * Starts a writer for a directory. The directory is created when the first recording is written.
+     *
+     * @param directory Directory the recordings are written to
+     */
+    public ReplayWriter(Path directory) {
+        this.directory = directory;
+        writer = new Thread(this::writeLoop, "replay-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues a finished game's recording. Returns at once; the file is written in the background.
+     * The recording is copied, so the caller may clear and reuse it straight away.
+     *
+     * @param recording Recording of a finished game
+     */
+    public void submit(InputLog recording) {
+        pending.add(recording.copy());
+    }
+
+    /** @return Number of recordings that could not be written. */
+    public int getFailedCount() {
+        return failedCount;
+    }
+
+    /**
+     * Writes every queued recording and stops the writer, waiting at most the given time.
+     *
+     * @param timeoutMillis Longest time to wait for the writer
+     * @throws InterruptedException If interrupted while waiting
+     */
+    public void close(long timeoutMillis) throws InterruptedException {
+        pending.add(STOP);
+        writer.join(timeoutMillis);
+    }
+
+    private void writeLoop() {
+        // Recordings finished in the same millisecond get distinct names
+        long lastStamp = 0;
+        while (true) {
+            InputLog recording;
+            try {
+                recording = pending.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (recording == STOP) return;
+
+            lastStamp = Math.max(lastStamp + 1, System.currentTimeMillis());
+            Path file = directory.resolve("game-" + lastStamp + ".sdkr");
+            try {
+                Files.createDirectories(directory);
+                recording.write(file);
+            } catch (IOException e) {
+                failedCount++;
+                System.err.println("Could not save replay " + file + ": " + e);
+            }
+        }
+    }
+}
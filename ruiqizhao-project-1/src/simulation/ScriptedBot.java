@@ -0,0 +1,137 @@
+package simulation;
+
+import entities.Collidable;
+import entities.Ladder;
+import entities.Mario;
+import entities.Platform;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A rule-based bot that fetches the hammer and then walks to Donkey.
+ * <p>
+ * It walks towards its target when both stand over the same floor, jumping for it once
+ * underneath, takes the nearest ladder when the target is over another floor, and jumps
+ * barrels resting just ahead of it. With a random source it also
+ * hesitates and jumps at random now and then, so that many games on one level play out
+ * differently, the way a crowd of human players would.
+ */
+public class ScriptedBot implements Bot {
+    // Vertical gap below which two bottoms count as the same floor
+    private static final double FLOOR_TOLERANCE = 20;
+    // How far ahead a resting barrel makes the bot jump
+    private static final double JUMP_DISTANCE = 40;
+    // How close under a raised target the bot jumps for it
+    private static final double REACH = 10;
+
+    private final Random random;
+    private final QueryBuffer ladderQuery = new QueryBuffer();
+    private final QueryBuffer platformQuery = new QueryBuffer();
+    private int idleTicks;
+
+    /**
+     * Creates a bot.
+     *
+     * @param random Source of hesitation and random jumps, or null for a bot that always plays
+     *               the same way
+     */
+    public ScriptedBot(Random random) {
+        this.random = random;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void decide(GameWorld world, InputState input) {
+        Mario mario = world.getMario();
+        if (random != null && idleTicks == 0 && random.nextInt(240) == 0) idleTicks = random.nextInt(30);
+        if (idleTicks > 0) {
+            idleTicks--;
+            input.clear();
+            return;
+        }
+
+        Collidable target = world.getHammer().isCollected() ? world.getDonkey() : world.getHammer();
+        double targetX = (target.getLeftEdge() + target.getRightEdge()) / 2;
+        double feet = mario.getBottomEdge();
+        double marioFloor = floorBelow(world, mario.getCenterX(), feet);
+        double targetFloor = floorBelow(world, targetX, target.getBottomEdge());
+        boolean targetAbove = targetFloor < marioFloor - FLOOR_TOLERANCE;
+        boolean targetBelow = targetFloor > marioFloor + FLOOR_TOLERANCE;
+
+        double goalX = targetX;
+        boolean up = false, down = false;
+        if (targetAbove || targetBelow) {
+            Ladder ladder = findLadder(world, feet, targetAbove);
+            if (ladder != null) {
+                goalX = (ladder.getLeftEdge() + ladder.getRightEdge()) / 2;
+                boolean aligned = Math.abs(mario.getCenterX() - goalX) < 4;
+                up = targetAbove && aligned;
+                down = targetBelow && aligned;
+            }
+        }
+
+        boolean left = !up && !down && goalX < mario.getCenterX() - 2;
+        boolean right = !up && !down && goalX > mario.getCenterX() + 2;
+        boolean underTarget = !targetAbove && !targetBelow && target.getBottomEdge() < mario.getTopEdge()
+                && Math.abs(targetX - mario.getCenterX()) < REACH;
+        boolean jump = mario.isOnGround() && !mario.isClimbing() && (underTarget
+                || isBarrelAhead(world, mario, right) || random != null && random.nextInt(400) == 0);
+        input.set(left, right, up, down, jump);
+    }
+
+    /**
+     * Finds the ladder nearest to Mario that leaves his floor: going up, one standing on it;
+     * going down, one whose top is at his feet. A ladder he is part way along always counts.
+     */
+    private Ladder findLadder(GameWorld world, double feet, boolean goingUp) {
+        Mario mario = world.getMario();
+        LadderIndex index = world.getLadderIndex();
+        List<Ladder> ladders = world.getLadders();
+        int count = index.query(ladderQuery, feet - index.getMaxHeight() - FLOOR_TOLERANCE,
+                feet + FLOOR_TOLERANCE, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+
+        Ladder best = null;
+        double bestDistance = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            Ladder ladder = ladders.get(ladderQuery.get(i));
+            double end = goingUp ? ladder.getBottomEdge() : ladder.getTopEdge();
+            boolean onIt = mario.getCenterX() >= ladder.getLeftEdge() && mario.getCenterX() <= ladder.getRightEdge()
+                    && ladder.getTopEdge() < feet && ladder.getBottomEdge() > feet;
+            if (Math.abs(end - feet) > FLOOR_TOLERANCE && !onIt) continue;
+            double distance = Math.abs((ladder.getLeftEdge() + ladder.getRightEdge()) / 2 - mario.getCenterX());
+            if (distance < bestDistance) {
+                best = ladder;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the top of the highest platform at or below a point, or infinity over a gap.
+     */
+    private double floorBelow(GameWorld world, double x, double y) {
+        int count = world.getPlatformIndex().query(platformQuery, y,
+                Double.POSITIVE_INFINITY, x, x);
+        List<Platform> platforms = world.getPlatforms();
+        double floor = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            floor = Math.min(floor, platforms.get(platformQuery.get(i)).getTopEdge());
+        }
+        return floor;
+    }
+
+    /** Checks for a barrel resting on Mario's floor just ahead of him. */
+    private static boolean isBarrelAhead(GameWorld world, Mario mario, boolean facingRight) {
+        Archetype barrels = world.getBarrels();
+        for (int slot = 0; slot < barrels.getSlotCount(); slot++) {
+            if (!barrels.isAlive(slot)) continue;
+            if (Math.abs(barrels.getBottomEdge(slot) - mario.getBottomEdge()) > FLOOR_TOLERANCE) continue;
+            double gap = facingRight ? barrels.getLeftEdge(slot) - mario.getRightEdge()
+                    : mario.getLeftEdge() - barrels.getRightEdge(slot);
+            if (gap >= 0 && gap <= JUMP_DISTANCE) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,55 @@
+package simulation;
+
+import entities.Collidable;
+
+/**
+ * Continuous collision between a falling box and the top of a static box, such as a platform.
+ * <p>
+ * Instead of testing where a box is at one instant, its bottom edge is swept along the whole
+ * distance it falls and the time at which it first reaches the other box's top is computed.
+ * A box that falls further in one tick than the other box is thick therefore still lands on
+ * it, however fast it falls or however long the tick is.
+ * <p>
+ * Boxes fall straight down: within a tick the world moves entities sideways before gravity
+ * moves them down, so during the fall a box is already at its final x-coordinate.
+ * Sweeps are parameterised by a time from 0 at the start to 1 at the end, so times of impact
+ * against different surfaces along the same sweep can be compared directly.
+ */
+public final class SweptCollision {
+    /** Time of impact returned when the box never reaches the surface */
+    public static final double NO_IMPACT = Double.POSITIVE_INFINITY;
+
+    private SweptCollision() {
+    }
+
+    /**
+     * Computes when a falling box lands on top of a static box.
+     * <p>
+     * The box lands if its bottom edge crosses the static box's top during the sweep while the
+     * two overlap horizontally. A box that is already below the top lands at once, as long as
+     * it is now at most {@code tolerance} below it: it has only sunk in slightly, for example
+     * by resting on the surface for a tick. Touching edges count as overlapping, as in
+     * {@link Collidable#intersects}.
+     *
+     * @param left          Left edge of the falling box
+     * @param width         Width of the falling box
+     * @param startBottom   Bottom edge at the start of the sweep
+     * @param currentBottom Bottom edge now, part way along the sweep
+     * @param endBottom     Bottom edge at the end of the sweep
+     * @param surface       The static box landed on
+     * @param tolerance     How far below the top the box may be now and still land
+     * @return Time of impact between 0 and 1, or {@link #NO_IMPACT}
+     */
+    public static double timeOfImpact(double left, double width, double startBottom, double currentBottom,
+                                      double endBottom, Collidable surface, double tolerance) {
+        double top = surface.getTopEdge();
+        if (endBottom < top) return NO_IMPACT;
+        if (left + width < surface.getLeftEdge() || left > surface.getRightEdge()) return NO_IMPACT;
+
+        if (startBottom <= top) {
+            // Crosses the top on the way down; a sweep that starts exactly on it lands at once
+            return endBottom > startBottom ? (top - startBottom) / (endBottom - startBottom) : 0;
+        }
+        return currentBottom <= top + tolerance ? 0 : NO_IMPACT;
+    }
+}
@@ -0,0 +1,104 @@
+package util;
+
+import bagel.Image;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Central cache of loaded images, keyed by file path.
+ * <p>
+ * Every entity and page obtains its {@code Image} handles from here, so each texture
+ * is decoded and uploaded once and shared by all instances that draw it.
+ * Images for the next level can be preloaded ahead of time. Every page uses the same small
+ * set of level images, so cached images are kept for the lifetime of the game.
+ * <p>
+ * In headless mode no image is ever loaded; sprites only carry the dimensions read
+ * from the image file header, so the game rules can run without an OpenGL window.
+ * <p>
+ * Images must be created on the main thread, which owns the OpenGL context. Once an image
+ * is cached, worker threads may fetch its sprite, for example to build a game in the background.
+ */
+public class AssetCache {
+
+    private static final Map<String, Image> IMAGES = new ConcurrentHashMap<>();
+    private static final Map<String, Sprite> SPRITES = new ConcurrentHashMap<>();
+    private static boolean headless = false;
+
+    /**
+     * Switches the cache between windowed and headless mode.
+     * Must be called before any sprite is requested.
+     *
+     * @param value True to run without loading any images
+     */
+    public static void setHeadless(boolean value) {
+        headless = value;
+        SPRITES.clear();
+    }
+
+    /**
+     * @return True if the cache runs without loading images
+     */
+    public static boolean isHeadless() {
+        return headless;
+    }
+
+    /**
+     * Returns the shared image for the given path, loading it on first use.
+     *
+     * @param path Path to the image file (e.g., "res/barrel.png")
+     * @return The cached Image instance
+     */
+    public static Image getImage(String path) {
+        if (headless) {
+            throw new IllegalStateException("Cannot load image " + path + " in headless mode");
+        }
+        Image image = IMAGES.get(path);
+        if (image == null) {
+            image = new Image(path);
+            IMAGES.put(path, image);
+        }
+        return image;
+    }
+
+    /**
+     * Returns the shared sprite for the given path.
+     * In headless mode the sprite has no image and its size is read from the file header.
+     *
+     * @param path Path to the image file
+     * @return The cached Sprite instance
+     */
+    public static Sprite getSprite(String path) {
+        Sprite sprite = SPRITES.get(path);
+        if (sprite == null) {
+            if (headless) {
+                int[] size = IOUtils.readImageSize(path);
+                sprite = new Sprite(null, size[0], size[1]);
+            } else {
+                Image image = getImage(path);
+                sprite = new Sprite(image, image.getWidth(), image.getHeight());
+            }
+            SPRITES.put(path, sprite);
+        }
+        return sprite;
+    }
+
+    /**
+     * Loads all the given images ahead of time so that no texture is loaded mid-game.
+     *
+     * @param paths Image paths to load
+     */
+    public static void preload(Collection<String> paths) {
+        for (String path : paths) {
+            getSprite(path);
+        }
+    }
+
+    /**
+     * @return Number of images currently held in the cache
+     */
+    public static int size() {
+        return IMAGES.size();
+    }
+}
@@ -0,0 +1,89 @@
+package util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Loads a set of images in two stages, so that a window keeps rendering while they load.
+ * <p>
+ * Worker threads read every file in the background and discard the bytes; this only leaves the
+ * file in the operating system's file cache, so the main thread does not wait on a cold disk.
+ * The main thread then creates the images a few at a time between frames, under a time budget.
+ * Bagel can only create an image from a file path, so decoding the file as well as uploading
+ * the texture still happens on the main thread, inside the image's constructor; what keeps the
+ * window responsive is the budget, not the workers.
+ */
+public class AssetPreloader {
+
+    /** Shared pool for background loading work, sized for a small machine. */
+    public static final ExecutorService WORKERS = Executors.newFixedThreadPool(
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1)), r -> {
+                Thread thread = new Thread(r, "asset-loader");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final List<String> imagePaths;
+    private final List<CompletableFuture<Void>> reads = new ArrayList<>();
+    private int created;
+
+    /**
+     * Starts reading the given files in the background.
+     *
+     * @param imagePaths Images to load, in the order they are created
+     * @param otherPaths Other files to read ahead, such as fonts
+     */
+    public AssetPreloader(List<String> imagePaths, List<String> otherPaths) {
+        this.imagePaths = List.copyOf(imagePaths);
+        for (String path : this.imagePaths) {
+            reads.add(CompletableFuture.runAsync(() -> readAhead(path), WORKERS));
+        }
+        for (String path : otherPaths) {
+            CompletableFuture.runAsync(() -> readAhead(path), WORKERS);
+        }
+    }
+
+    // Warms the file cache only; the bytes cannot be handed to bagel
+    private static void readAhead(String path) {
+        try {
+            Files.readAllBytes(Path.of(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Creates images whose files have been read, in order, until the time budget is used up.
+     * Must be called on the main thread.
+     *
+     * @param budgetNanos Time to spend creating images in this call
+     * @return True once every image has been created
+     */
+    public boolean createSome(long budgetNanos) {
+        long deadline = System.nanoTime() + budgetNanos;
+        while (created < imagePaths.size() && reads.get(created).isDone()) {
+            // A failed read surfaces here, on the main thread
+            reads.get(created).join();
+            AssetCache.getSprite(imagePaths.get(created++));
+            if (System.nanoTime() >= deadline) break;
+        }
+        return isDone();
+    }
+
+    /** @return True once every image has been created. */
+    public boolean isDone() {
+        return created == imagePaths.size();
+    }
+
+    /** @return Fraction of the images created so far, from 0 to 1. */
+    public double getProgress() {
+        return imagePaths.isEmpty() ? 1 : (double) created / imagePaths.size();
+    }
+}
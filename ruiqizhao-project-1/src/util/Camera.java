@@ -0,0 +1,63 @@
+package util;
+
+/**
+ * The window's view onto a world that may be larger than the window.
+ * <p>
+ * The camera keeps its target centred in the view but never shows anything outside the world,
+ * so a world the size of the window never scrolls.
+ */
+public class Camera {
+    private final double viewWidth, viewHeight;
+    private final double worldWidth, worldHeight;
+    private double left, top;
+
+    /**
+     * Creates a camera showing the top-left corner of the world.
+     *
+     * @param viewWidth   Width of the window in pixels
+     * @param viewHeight  Height of the window in pixels
+     * @param worldWidth  Width of the world in pixels
+     * @param worldHeight Height of the world in pixels
+     */
+    public Camera(double viewWidth, double viewHeight, double worldWidth, double worldHeight) {
+        this.viewWidth = viewWidth;
+        this.viewHeight = viewHeight;
+        this.worldWidth = worldWidth;
+        this.worldHeight = worldHeight;
+    }
+
+    /**
+     * Moves the view so that the given point is as close to its centre as the world allows.
+     *
+     * @param centerX World x-coordinate to centre on
+     * @param centerY World y-coordinate to centre on
+     */
+    public void follow(double centerX, double centerY) {
+        left = clamp(centerX - viewWidth / 2, worldWidth - viewWidth);
+        top = clamp(centerY - viewHeight / 2, worldHeight - viewHeight);
+    }
+
+    private static double clamp(double value, double max) {
+        return Math.max(0, Math.min(value, Math.max(0, max)));
+    }
+
+    /** @return World x-coordinate of the view's left edge. */
+    public double getLeft() {
+        return left;
+    }
+
+    /** @return World y-coordinate of the view's top edge. */
+    public double getTop() {
+        return top;
+    }
+
+    /** @return World x-coordinate of the view's right edge. */
+    public double getRight() {
+        return left + viewWidth;
+    }
+
+    /** @return World y-coordinate of the view's bottom edge. */
+    public double getBottom() {
+        return top + viewHeight;
+    }
+}
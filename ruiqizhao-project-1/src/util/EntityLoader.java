@@ -3,8 +3,8 @@ package util;
 import entities.Ladder;
 import entities.Barrel;
 
-import java.io.FileInputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Properties;
 
@@ -24,20 +24,20 @@ public class EntityLoader {
      * @return A list of Ladder objects
      */
     public static List<Ladder> loadLadders(String path) {
-        List<Ladder> ladders = new ArrayList<>();
-        try {
-            Properties props = new Properties();
-            props.load(new FileInputStream(path));
-            int count = Integer.parseInt(props.getProperty("ladder.count"));
+        return loadLadders(IOUtils.readPropertiesFile(path));
+    }
 
-            for (int i = 1; i <= count; i++) {
-                String[] parts = props.getProperty("ladder." + i).split(",");
-                double x = Double.parseDouble(parts[0].trim());
-                double y = Double.parseDouble(parts[1].trim());
-                ladders.add(new Ladder(x, y));
-            }
-        } catch (Exception e) {
-            System.err.println("Failed to load ladders: " + e.getMessage());
+    /**
+     * Loads ladder entities from already loaded properties.
+     *
+     * @param props Properties containing the ladder entries
+     * @return A list of Ladder objects
+     */
+    public static List<Ladder> loadLadders(Properties props) {
+        double[] coords = loadCoordinates(props, "ladder");
+        List<Ladder> ladders = new ArrayList<>(coords.length / 2);
+        for (int i = 0; i < coords.length; i += 2) {
+            ladders.add(new Ladder(coords[i], coords[i + 1]));
         }
         return ladders;
     }
@@ -52,19 +52,50 @@ public class EntityLoader {
      * @return A list of Barrel objects
      */
     public static List<Barrel> loadBarrels(String path) {
-        List<Barrel> barrels = new ArrayList<>();
+        return loadBarrels(IOUtils.readPropertiesFile(path));
+    }
+
+    /**
+     * Loads barrel entities from already loaded properties.
+     *
+     * @param props Properties containing the barrel entries
+     * @return A list of Barrel objects
+     */
+    public static List<Barrel> loadBarrels(Properties props) {
+        double[] coords = loadCoordinates(props, "barrel");
+        List<Barrel> barrels = new ArrayList<>(coords.length / 2);
+        for (int i = 0; i < coords.length; i += 2) {
+            barrels.add(new Barrel(coords[i], coords[i + 1]));
+        }
+        return barrels;
+    }
+
+    /**
+     * Reads numbered "x,y" entries without creating entities.
+     * The properties must include:
+     * - prefix.count: total number of entries
+     * - prefix.1, prefix.2, ..., prefix.n: each entry contains "x,y"
+     * Reading stops at the first malformed entry, keeping the entries before it.
+     *
+     * @param props  Properties containing the entries
+     * @param prefix Entity name, e.g. "ladder" or "barrel"
+     * @return The coordinates as interleaved x, y pairs
+     */
+    public static double[] loadCoordinates(Properties props, String prefix) {
+        double[] coords = new double[0];
+        int loaded = 0;
         try {
-            Properties props = IOUtils.readPropertiesFile(path);
-            int count = Integer.parseInt(props.getProperty("barrel.count"));
+            int count = Integer.parseInt(props.getProperty(prefix + ".count"));
+            coords = new double[count * 2];
             for (int i = 1; i <= count; i++) {
-                String[] coords = props.getProperty("barrel." + i).split(",");
-                double x = Double.parseDouble(coords[0].trim());
-                double y = Double.parseDouble(coords[1].trim());
-                barrels.add(new Barrel(x, y));
+                String[] parts = props.getProperty(prefix + "." + i).split(",");
+                coords[2 * loaded] = Double.parseDouble(parts[0].trim());
+                coords[2 * loaded + 1] = Double.parseDouble(parts[1].trim());
+                loaded++;
             }
         } catch (Exception e) {
-            System.err.println("Failed to load barrels: " + e.getMessage());
+            System.err.println("Failed to load " + prefix + "s: " + e.getMessage());
         }
-        return barrels;
+        return Arrays.copyOf(coords, loaded * 2);
     }
 }
@@ -0,0 +1,36 @@
+package util;
+
+import bagel.Font;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Central cache of loaded fonts, keyed by file path and size.
+ * <p>
+ * Creating a {@code Font} rasterises its glyphs, which is slow enough to hitch a page
+ * transition. Pages obtain their fonts from here instead, so each font and size is created
+ * once per session and shared by every page and every game that uses it.
+ */
+public class FontRegistry {
+
+    private static final Map<String, Font> FONTS = new HashMap<>();
+
+    /**
+     * Returns the shared font for the given file and size, creating it on first use.
+     *
+     * @param path Path to the font file (e.g., "res/FSO8BITR.TTF")
+     * @param size Font size in points
+     * @return The cached Font instance
+     */
+    public static Font get(String path, int size) {
+        return FONTS.computeIfAbsent(path + '@' + size, key -> new Font(path, size));
+    }
+
+    /**
+     * @return Number of fonts currently held in the registry
+     */
+    public static int size() {
+        return FONTS.size();
+    }
+}
@@ -0,0 +1,126 @@
+package util;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.LongSupplier;
+
+/**
+ * Collects how long each phase of a tick and of a frame takes.
+ * <p>
+ * Every phase records into two {@link LatencyHistogram}s: one covering the whole session, which
+ * {@link #writeCsv} dumps, and one covering the current one-second window. When a window ends,
+ * its histogram is published for the overlay and a fresh one starts, so the overlay always
+ * shows the most recent second rather than an average that hides new spikes.
+ * <p>
+ * The simulation reads the start and end of its phases through {@link #now()}, so a profiler
+ * built on another counter, such as the bytes allocated by the current thread, measures that
+ * instead of time with the same phase breakdown.
+ */
+public class FrameProfiler {
+    /** The measured phases, in the order they run. */
+    public enum Phase {
+        MOVEMENT, GRAVITY, JUMP_SCORE, BARRELS, HAMMER, WIN_LOSE, PLATFORMS, LADDERS, STREAMING, DRAW_WORLD, DRAW_HUD
+    }
+
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+    private static final Phase[] PHASES = Phase.values();
+
+    private final LatencyHistogram[] session = new LatencyHistogram[PHASES.length];
+    private LatencyHistogram[] window = new LatencyHistogram[PHASES.length];
+    private LatencyHistogram[] lastWindow = new LatencyHistogram[PHASES.length];
+    private long windowStart = -1;
+    private final LongSupplier meter;
+
+    /** Creates a profiler with empty histograms that measures time. */
+    public FrameProfiler() {
+        this(System::nanoTime);
+    }
+
+    /**
+     * Creates a profiler with empty histograms that measures with another counter.
+     *
+     * @param meter Monotonic counter read at the start and end of every phase; it must not allocate
+     */
+    public FrameProfiler(LongSupplier meter) {
+        this.meter = meter;
+        for (int i = 0; i < PHASES.length; i++) {
+            session[i] = new LatencyHistogram();
+            window[i] = new LatencyHistogram();
+            lastWindow[i] = new LatencyHistogram();
+        }
+    }
+
+    /** @return The current reading of the counter this profiler measures, {@link System#nanoTime()} by default */
+    public long now() {
+        return meter.getAsLong();
+    }
+
+    /**
+     * Records one run of a phase.
+     *
+     * @param phase The phase that ran
+     * @param nanos How long it took
+     */
+    public void record(Phase phase, long nanos) {
+        session[phase.ordinal()].record(nanos);
+        window[phase.ordinal()].record(nanos);
+    }
+
+    /**
+     * Ends the current window if it has lasted a second. Call once per frame.
+     *
+     * @param now Current {@link System#nanoTime()}
+     * @return True if a new window was published
+     */
+    public boolean rollWindow(long now) {
+        if (windowStart < 0) windowStart = now;
+        if (now - windowStart < WINDOW_NANOS) return false;
+
+        LatencyHistogram[] finished = window;
+        window = lastWindow;
+        lastWindow = finished;
+        for (LatencyHistogram histogram : window) histogram.reset();
+        windowStart = now;
+        return true;
+    }
+
+    /**
+     * @param phase A phase
+     * @return The phase's durations over the last completed one-second window
+     */
+    public LatencyHistogram getLastWindow(Phase phase) {
+        return lastWindow[phase.ordinal()];
+    }
+
+    /**
+     * @param phase A phase
+     * @return The phase's durations since the profiler was created
+     */
+    public LatencyHistogram getSession(Phase phase) {
+        return session[phase.ordinal()];
+    }
+
+    /** Forgets everything recorded for the session so far, for example during a warm-up. */
+    public void resetSession() {
+        for (LatencyHistogram histogram : session) histogram.reset();
+    }
+
+    /**
+     * Writes one line per phase with its session-wide count, mean, p50, p99 and max in nanoseconds.
+     *
+     * @param file Destination file, replaced if it exists
+     * @throws IOException If the file cannot be written
+     */
+    public void writeCsv(Path file) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+            out.println("phase,count,mean_ns,p50_ns,p99_ns,max_ns");
+            for (Phase phase : PHASES) {
+                LatencyHistogram h = getSession(phase);
+                out.printf("%s,%d,%.0f,%d,%d,%d%n", phase.name().toLowerCase(), h.getCount(), h.getMean(),
+                        h.getValueAtPercentile(50), h.getValueAtPercentile(99), h.getMax());
+            }
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package util;
 
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 import java.io.*;
+import java.util.Iterator;
 import java.util.Properties;
 
 /**
@@ -14,8 +18,8 @@ public class IOUtils {
      */
     public static Properties readPropertiesFile(String configFile) {
         Properties appProps = new Properties();
-        try {
-            appProps.load(new FileInputStream(configFile));
+        try (InputStream in = new FileInputStream(configFile)) {
+            appProps.load(in);
         } catch(IOException ex) {
             ex.printStackTrace();
             System.exit(-1);
@@ -24,4 +28,29 @@ public class IOUtils {
         return appProps;
     }
 
+    /***
+     * Read the dimensions of an image from its header, without decoding the pixels
+     * @param imageFile: the path to the image file (any format ImageIO can sniff)
+     * @return: an array holding the width and height in pixels
+     */
+    public static int[] readImageSize(String imageFile) {
+        try (ImageInputStream in = ImageIO.createImageInputStream(new File(imageFile))) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("Unsupported image file: " + imageFile);
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in);
+                return new int[] {reader.getWidth(0), reader.getHeight(0)};
+            } finally {
+                reader.dispose();
+            }
+        } catch(IOException ex) {
+            ex.printStackTrace();
+            System.exit(-1);
+            return null;
+        }
+    }
+
 }
@@ -0,0 +1,102 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size histogram of durations in nanoseconds with HDR-style log-linear buckets.
+ * <p>
+ * Values below 32 ns get a bucket each; above that, every power of two is split into 16
+ * buckets, so any recorded value is reported within about 6% of its true size while the whole
+ * range of a long fits in under a thousand counters. Recording is a few shifts and an
+ * increment and never allocates, so it is cheap enough to run on every tick in production.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+    private static final int BUCKET_COUNT = LINEAR_LIMIT + (63 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount;
+    private long max;
+    private long sum;
+
+    /**
+     * Records one duration.
+     *
+     * @param nanos Duration in nanoseconds; negative values count as zero
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts[bucketOf(value)]++;
+        totalCount++;
+        sum += value;
+        if (value > max) max = value;
+    }
+
+    /**
+     * Adds every value recorded by another histogram to this one.
+     *
+     * @param other Histogram to merge in
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    /** Forgets every recorded value. */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        sum = 0;
+        max = 0;
+    }
+
+    /**
+     * @param percentile Percentile between 0 and 100
+     * @return The largest value in the bucket holding that percentile, never more than the
+     *         maximum recorded; 0 if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(totalCount * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(highestValueIn(i), max);
+        }
+        return max;
+    }
+
+    /** @return Number of recorded values. */
+    public long getCount() {
+        return totalCount;
+    }
+
+    /** @return Largest recorded value, or 0 if nothing was recorded. */
+    public long getMax() {
+        return max;
+    }
+
+    /** @return Mean of the recorded values, or 0 if nothing was recorded. */
+    public double getMean() {
+        return totalCount == 0 ? 0 : (double) sum / totalCount;
+    }
+
+    private static int bucketOf(long value) {
+        if (value < LINEAR_LIMIT) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return LINEAR_LIMIT + (shift - 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    private static long highestValueIn(int bucket) {
+        if (bucket < LINEAR_LIMIT) return bucket;
+        int shift = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + 1;
+        long subBucket = (bucket - LINEAR_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
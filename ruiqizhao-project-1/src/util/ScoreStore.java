@@ -0,0 +1,186 @@
+package util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Persistent high scores, appended to a CSV file by a background writer.
+ * <p>
+ * Each result is one line {@code score,epochMillis,crc}, where the CRC32 covers the first two
+ * fields. The render thread only updates the in-memory top scores and queues the line; the
+ * writer thread appends everything queued at once and forces it to disk once per batch, so a
+ * burst of results costs one sync.
+ * <p>
+ * The file is only ever appended to, so a crash can at worst leave the last line half written.
+ * When the store is opened, a trailing partial line is cut off and lines whose checksum does
+ * not match are skipped, so the file stays readable after any crash.
+ */
+public class ScoreStore {
+    // Tells the writer to stop once everything before it is written
+    private static final String STOP = "";
+
+    private final Path file;
+    private final int[] topScores;
+    private int topCount;
+
+    private final BlockingQueue<String> pending = new LinkedBlockingQueue<>();
+    private final Thread writer;
+
+    private ScoreStore(Path file, int topN) {
+        this.file = file;
+        this.topScores = new int[topN];
+        writer = new Thread(this::writeLoop, "score-writer");
+        writer.setDaemon(true);
+    }
+
+    /**
+     * Opens a score file, repairing a torn last line, and starts the writer.
+     * A missing file is created when the first score is written.
+     *
+     * @param file Score file
+     * @param topN Number of top scores kept in memory
+     * @return The store
+     * @throws IOException If the file exists but cannot be read or repaired
+     */
+    public static ScoreStore open(Path file, int topN) throws IOException {
+        ScoreStore store = new ScoreStore(file, topN);
+        if (Files.exists(file)) store.recover();
+        store.writer.start();
+        return store;
+    }
+
+    /** Loads every intact line into the top scores and truncates a partial last line. */
+    private void recover() throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        int lineStart = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] != '\n') continue;
+            Integer score = parse(new String(bytes, lineStart, i - lineStart, StandardCharsets.UTF_8));
+            if (score != null) offer(score);
+            lineStart = i + 1;
+        }
+        if (lineStart < bytes.length) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(lineStart);
+                channel.force(true);
+            }
+        }
+    }
+
+    /** Returns the score of an intact line, or null if the line is malformed or corrupt. */
+    private static Integer parse(String line) {
+        int lastComma = line.lastIndexOf(',');
+        if (lastComma < 0) return null;
+        String record = line.substring(0, lastComma);
+        try {
+            if (Long.parseLong(line.substring(lastComma + 1), 16) != checksum(record)) return null;
+            return Integer.parseInt(record.substring(0, record.indexOf(',')));
+        } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    private static long checksum(String record) {
+        CRC32 crc = new CRC32();
+        crc.update(record.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    /**
+     * Records the result of a game. Returns at once; the file is written in the background.
+     * Must be called from the thread that reads the top scores.
+     *
+     * @param score Final score
+     */
+    public void submit(int score) {
+        offer(score);
+        String record = score + "," + System.currentTimeMillis();
+        pending.add(record + "," + Long.toHexString(checksum(record)) + "\n");
+    }
+
+    /** Inserts a score into the top scores if it ranks. */
+    private void offer(int score) {
+        if (topCount == topScores.length) {
+            if (topCount == 0 || topScores[topCount - 1] >= score) return;
+            topCount--;
+        }
+        int i = topCount++;
+        while (i > 0 && topScores[i - 1] < score) {
+            topScores[i] = topScores[i - 1];
+            i--;
+        }
+        topScores[i] = score;
+    }
+
+    /** @return Number of top scores known, at most the configured number. */
+    public int getTopCount() {
+        return topCount;
+    }
+
+    /**
+     * @param rank Rank from 0, the best score
+     * @return The score at that rank
+     */
+    public int getTopScore(int rank) {
+        return topScores[rank];
+    }
+
+    /**
+     * Writes every queued score and stops the writer, waiting at most the given time.
+     *
+     * @param timeoutMillis Longest time to wait for the writer
+     * @throws InterruptedException If interrupted while waiting
+     */
+    public void close(long timeoutMillis) throws InterruptedException {
+        pending.add(STOP);
+        writer.join(timeoutMillis);
+    }
+
+    private void writeLoop() {
+        List<String> batch = new ArrayList<>();
+        boolean stopping = false;
+        while (!stopping) {
+            try {
+                batch.add(pending.take());
+                // Whatever arrives in the meantime shares the sync
+                String next = pending.poll(50, TimeUnit.MILLISECONDS);
+                if (next != null) batch.add(next);
+                pending.drainTo(batch);
+            } catch (InterruptedException e) {
+                stopping = true;
+            }
+            stopping |= batch.remove(STOP);
+            if (!batch.isEmpty()) {
+                try {
+                    append(batch);
+                } catch (IOException e) {
+                    // A lost score must not interrupt the game
+                    e.printStackTrace();
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    private void append(List<String> lines) throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (String line : lines) text.append(line);
+        ByteBuffer buffer = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (buffer.hasRemaining()) channel.write(buffer);
+            channel.force(false);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package util;
+
+import bagel.Image;
+
+/**
+ * A shared sprite handle: the image used to draw an entity together with its dimensions.
+ * <p>
+ * When the game runs headless there is no image to draw, but the dimensions are still
+ * available so that collision rules behave exactly as they do in the window.
+ * <p>
+ * Sprites are positioned in world coordinates. While a level is played, the renderer sets the
+ * part of the world shown in the window with {@link #setView}; every sprite is drawn relative to
+ * it, and sprites entirely outside it are skipped without issuing a draw call.
+ */
+public class Sprite {
+    // World rectangle shown in the window; only touched by the render thread
+    private static double viewLeft, viewTop;
+    private static double viewRight = Double.POSITIVE_INFINITY, viewBottom = Double.POSITIVE_INFINITY;
+
+    private final Image image;
+    private final double width, height;
+
+    /**
+     * Creates a sprite.
+     *
+     * @param image  The image to draw, or null when running headless
+     * @param width  Width of the sprite in pixels
+     * @param height Height of the sprite in pixels
+     */
+    public Sprite(Image image, double width, double height) {
+        this.image = image;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * @return Width of the sprite in pixels
+     */
+    public double getWidth() {
+        return width;
+    }
+
+    /**
+     * @return Height of the sprite in pixels
+     */
+    public double getHeight() {
+        return height;
+    }
+
+    /**
+     * Sets the part of the world shown in the window.
+     *
+     * @param left   World x-coordinate of the window's left edge
+     * @param top    World y-coordinate of the window's top edge
+     * @param right  World x-coordinate of the window's right edge
+     * @param bottom World y-coordinate of the window's bottom edge
+     */
+    public static void setView(double left, double top, double right, double bottom) {
+        viewLeft = left;
+        viewTop = top;
+        viewRight = right;
+        viewBottom = bottom;
+    }
+
+    /**
+     * Draws the sprite with its top-left corner at the given world position,
+     * unless it lies entirely outside the view.
+     *
+     * @param x Left x-coordinate
+     * @param y Top y-coordinate
+     */
+    public void drawFromTopLeft(double x, double y) {
+        if (x > viewRight || y > viewBottom || x + width < viewLeft || y + height < viewTop) return;
+        image.drawFromTopLeft(x - viewLeft, y - viewTop);
+    }
+}
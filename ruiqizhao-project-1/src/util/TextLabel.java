@@ -0,0 +1,79 @@
+package util;
+
+import bagel.Font;
+
+/**
+ * A line of text whose string and measured width are cached between frames.
+ * <p>
+ * Labels showing a number, such as the score, rebuild their string and re-measure it only when
+ * the number changes, so a HUD that is redrawn every frame creates no strings while the values
+ * stay the same.
+ */
+public class TextLabel {
+    private final Font font;
+    private final String prefix;
+
+    private String text;
+    private int value;
+    private boolean hasValue;
+    private double width = -1;
+
+    /**
+     * Creates a label showing fixed text.
+     *
+     * @param font Font to draw the text with
+     * @param text The text
+     */
+    public TextLabel(Font font, String text) {
+        this.font = font;
+        this.prefix = text;
+        this.text = text;
+    }
+
+    /**
+     * Shows a number after the label's text, rebuilding the string only if the number changed.
+     *
+     * @param newValue The number to show
+     * @return This label
+     */
+    public TextLabel setValue(int newValue) {
+        if (!hasValue || newValue != value) {
+            value = newValue;
+            hasValue = true;
+            text = prefix + newValue;
+            width = -1;
+        }
+        return this;
+    }
+
+    /** @return The text currently shown. */
+    public String getText() {
+        return text;
+    }
+
+    /** @return Width of the current text in pixels, measured once per change. */
+    public double getWidth() {
+        if (width < 0) width = font.getWidth(text);
+        return width;
+    }
+
+    /**
+     * Draws the text with its left edge at the given position.
+     *
+     * @param x Left x-coordinate
+     * @param y Baseline y-coordinate
+     */
+    public void draw(double x, double y) {
+        font.drawString(text, x, y);
+    }
+
+    /**
+     * Draws the text horizontally centred on the given position.
+     *
+     * @param centerX X-coordinate of the text's centre
+     * @param y       Baseline y-coordinate
+     */
+    public void drawCentered(double centerX, double y) {
+        font.drawString(text, centerX - getWidth() / 2, y);
+    }
+}